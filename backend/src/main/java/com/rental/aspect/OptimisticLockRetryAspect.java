@@ -0,0 +1,69 @@
+package com.rental.aspect;
+
+import com.rental.exception.ConcurrentUpdateException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.OptimisticLockException;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Implements {@link RetryOnOptimisticLock}.
+ * Ordered ahead of the transaction interceptor (which runs at lowest precedence), so every
+ * attempt starts and commits its own transaction; retrying inside a failed transaction
+ * would be pointless because it is already marked for rollback.
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+public class OptimisticLockRetryAspect {
+
+    private static final Logger logger = LoggerFactory.getLogger(OptimisticLockRetryAspect.class);
+
+    private final MeterRegistry meterRegistry;
+
+    public OptimisticLockRetryAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("@annotation(retry)")
+    public Object retry(ProceedingJoinPoint joinPoint, RetryOnOptimisticLock retry) throws Throwable {
+        String operation = joinPoint.getSignature().getDeclaringType().getSimpleName() + "." + joinPoint.getSignature().getName();
+        int attempt = 1;
+        while (true) {
+            try {
+                return joinPoint.proceed();
+            } catch (ObjectOptimisticLockingFailureException | OptimisticLockException e) {
+                counter("optimistic_lock.conflicts", "Optimistic-lock conflicts on versioned rows", operation).increment();
+                if (attempt >= retry.maxAttempts()) {
+                    counter("optimistic_lock.exhausted", "Operations that failed after all retry attempts", operation).increment();
+                    logger.warn("{} lost {} optimistic-lock race(s), giving up", operation, attempt);
+                    throw new ConcurrentUpdateException(
+                            "The record was modified by another request, please reload and try again", e);
+                }
+                // Exponential backoff with full jitter, so colliding requests spread out instead of colliding again
+                long ceiling = retry.backoffMillis() << (attempt - 1);
+                long backoff = ThreadLocalRandom.current().nextLong(ceiling + 1);
+                logger.debug("{} hit an optimistic-lock conflict (attempt {}), retrying in {} ms", operation, attempt, backoff);
+                Thread.sleep(backoff);
+                attempt++;
+            }
+        }
+    }
+
+    private Counter counter(String name, String description, String operation) {
+        return Counter.builder(name)
+                .description(description)
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+}
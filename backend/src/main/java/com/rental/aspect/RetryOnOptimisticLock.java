@@ -0,0 +1,28 @@
+package com.rental.aspect;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Re-runs a transactional service method when it loses an optimistic-lock race.
+ * Each attempt runs in a fresh transaction; after the last attempt the conflict is
+ * reported as a ConcurrentUpdateException (409).
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RetryOnOptimisticLock {
+
+    /**
+     * Total attempts, including the first one.
+     */
+    int maxAttempts() default 3;
+
+    /**
+     * Base backoff before the second attempt; doubled for each further attempt, with full jitter.
+     */
+    long backoffMillis() default 20;
+}
@@ -0,0 +1,189 @@
+package com.rental.audit;
+
+import jakarta.persistence.Table;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.proxy.HibernateProxy;
+import org.hibernate.type.CollectionType;
+import org.hibernate.type.EntityType;
+import org.hibernate.type.Type;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Captures committed entity inserts, updates and deletes for the audit log.
+ * Runs on the request thread right after commit, so it only copies the changed values
+ * (associations as IDs) and hands them to the {@link AuditLogWriter}; serialisation and
+ * the database write happen on the writer thread. Rolled-back changes are never seen.
+ * Changes made with native UPDATE statements (e.g. stock reservations) bypass Hibernate
+ * events and are not captured. Redacted properties (such as password hashes) are replaced
+ * before the record is queued, so their values never reach the writer, the spool file or
+ * the audit table; the record still shows that they changed.
+ */
+public class AuditEventListener implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener {
+
+    static final String REDACTED = "[REDACTED]";
+
+    private final AuditLogWriter writer;
+    private final Set<String> excludedTables;
+    // table name -> property names whose values are never copied
+    private final Map<String, Set<String>> redactedProperties;
+    private final Map<String, String> tableNames = new ConcurrentHashMap<>();
+
+    /**
+     * @param redactedProperties entries of the form {@code table.property}, e.g. {@code app_user.password}
+     */
+    public AuditEventListener(AuditLogWriter writer, Set<String> excludedTables, Set<String> redactedProperties) {
+        this.writer = writer;
+        this.excludedTables = excludedTables;
+        this.redactedProperties = redactedProperties.stream()
+                .map(String::trim)
+                .filter(entry -> entry.indexOf('.') > 0)
+                .collect(Collectors.groupingBy(entry -> entry.substring(0, entry.indexOf('.')),
+                        Collectors.mapping(entry -> entry.substring(entry.indexOf('.') + 1), Collectors.toSet())));
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return !excludedTables.contains(tableName(persister));
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        EntityPersister persister = event.getPersister();
+        if (requiresPostCommitHandling(persister)) {
+            writer.submit(record(persister, event.getId(), "INSERT", null,
+                    snapshot(persister, event.getState(), null, event.getSession())));
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        EntityPersister persister = event.getPersister();
+        if (!requiresPostCommitHandling(persister)) {
+            return;
+        }
+        int[] dirty = event.getDirtyProperties();
+        Object[] oldState = event.getOldState();
+        if (dirty == null && oldState != null) {
+            dirty = changedProperties(oldState, event.getState());
+        }
+        if (dirty != null && dirty.length == 0) {
+            return;
+        }
+        // Without a loaded snapshot (merged detached entity) only the new values are known
+        Map<String, Object> oldData = oldState != null ? snapshot(persister, oldState, dirty, event.getSession()) : null;
+        Map<String, Object> newData = snapshot(persister, event.getState(), dirty, event.getSession());
+        writer.submit(record(persister, event.getId(), "UPDATE", oldData, newData));
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        EntityPersister persister = event.getPersister();
+        if (requiresPostCommitHandling(persister)) {
+            writer.submit(record(persister, event.getId(), "DELETE",
+                    snapshot(persister, event.getDeletedState(), null, event.getSession()), null));
+        }
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+        // Nothing was committed, nothing to audit
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        // Nothing was committed, nothing to audit
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        // Nothing was committed, nothing to audit
+    }
+
+    private AuditRecord record(EntityPersister persister, Object id, String action,
+                               Map<String, Object> oldData, Map<String, Object> newData) {
+        return new AuditRecord(tableName(persister), id instanceof Integer intId ? intId : null, action,
+                oldData, newData, currentUser(), LocalDateTime.now());
+    }
+
+    /**
+     * Copies the given properties (all when indexes is null) into a map of plain values.
+     * Collections are skipped and associations are reduced to their identifiers.
+     */
+    private Map<String, Object> snapshot(EntityPersister persister, Object[] state, int[] indexes, EventSource session) {
+        if (state == null) {
+            return null;
+        }
+        String[] names = persister.getPropertyNames();
+        Type[] types = persister.getPropertyTypes();
+        Set<String> redacted = redactedProperties.getOrDefault(tableName(persister), Set.of());
+        Map<String, Object> values = new LinkedHashMap<>();
+        int count = indexes != null ? indexes.length : state.length;
+        for (int i = 0; i < count; i++) {
+            int property = indexes != null ? indexes[i] : i;
+            Type type = types[property];
+            if (type instanceof CollectionType) {
+                continue;
+            }
+            Object value = state[property];
+            if (redacted.contains(names[property])) {
+                values.put(names[property], value != null ? REDACTED : null);
+            } else if (value != null && type instanceof EntityType entityType) {
+                values.put(names[property] + "Id", identifier(entityType, value, session));
+            } else {
+                values.put(names[property], value);
+            }
+        }
+        return values;
+    }
+
+    private static Object identifier(EntityType type, Object value, EventSource session) {
+        if (value instanceof HibernateProxy proxy) {
+            return proxy.getHibernateLazyInitializer().getInternalIdentifier();
+        }
+        return session.getFactory().getMappingMetamodel()
+                .getEntityDescriptor(type.getAssociatedEntityName())
+                .getIdentifier(value, session);
+    }
+
+    private static int[] changedProperties(Object[] oldState, Object[] newState) {
+        int[] changed = new int[newState.length];
+        int count = 0;
+        for (int i = 0; i < newState.length; i++) {
+            if (!Objects.equals(oldState[i], newState[i])) {
+                changed[count++] = i;
+            }
+        }
+        return Arrays.copyOf(changed, count);
+    }
+
+    private String tableName(EntityPersister persister) {
+        return tableNames.computeIfAbsent(persister.getEntityName(), name -> {
+            Class<?> mappedClass = persister.getMappedClass();
+            Table table = mappedClass != null ? mappedClass.getAnnotation(Table.class) : null;
+            return table != null && !table.name().isEmpty() ? table.name() : name.substring(name.lastIndexOf('.') + 1);
+        });
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : "system";
+    }
+}
@@ -0,0 +1,261 @@
+package com.rental.audit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Writes audit records to audit_log off the request thread.
+ * Callers only put a record into a bounded buffer; a single writer thread drains it and
+ * inserts the records as JDBC batches, taking IDs from the audit_log sequence one block
+ * at a time (pooled-lo, like the Hibernate generator). When the buffer is full, or the
+ * database rejects a batch, records are appended to a spool file instead of being dropped;
+ * the writer replays the spool once the buffer has drained.
+ */
+public class AuditLogWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditLogWriter.class);
+
+    private static final String INSERT_SQL = "INSERT INTO rental_management.audit_log " +
+            "(audit_id, table_name, record_id, action, old_data, new_data, changed_by, changed_at) " +
+            "VALUES (?, ?, ?, ?, CAST(? AS jsonb), CAST(? AS jsonb), ?, ?)";
+    private static final String NEXT_ID_SQL = "SELECT nextval('rental_management.audit_log_audit_id_seq')";
+    // Must match the allocationSize of the AuditLog sequence generator and the sequence increment
+    private static final int ID_BLOCK_SIZE = 50;
+    private static final long REPLAY_BACKOFF_MILLIS = 30_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final BlockingQueue<AuditRecord> buffer;
+    private final int batchSize;
+    private final Duration flushInterval;
+    private final Path spoolFile;
+    // Serialises spool appends with the rename that starts a replay
+    private final ReentrantLock spoolLock = new ReentrantLock();
+    private final Thread writerThread;
+    private final Counter writtenCounter;
+    private final Counter spooledCounter;
+    private final Counter lostCounter;
+    private volatile boolean running = true;
+    // Writer thread only
+    private long nextId;
+    private long idBlockEnd;
+    private long replayNotBefore;
+
+    public AuditLogWriter(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                          int capacity, int batchSize, Duration flushInterval, Path spoolFile) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+        this.spoolFile = spoolFile;
+        this.writtenCounter = Counter.builder("audit.records.written").register(meterRegistry);
+        this.spooledCounter = Counter.builder("audit.records.spooled")
+                .description("Audit records written to the spool file because the buffer was full or the database failed")
+                .register(meterRegistry);
+        this.lostCounter = Counter.builder("audit.records.lost").register(meterRegistry);
+        Gauge.builder("audit.buffer.size", buffer, BlockingQueue::size).register(meterRegistry);
+        this.writerThread = new Thread(this::run, "audit-log-writer");
+        this.writerThread.setDaemon(true);
+    }
+
+    public void start() {
+        writerThread.start();
+    }
+
+    /**
+     * Stops the writer after it has written (or spooled) everything still buffered.
+     */
+    public void stop() throws InterruptedException {
+        running = false;
+        writerThread.interrupt();
+        writerThread.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    /**
+     * Queues a record without blocking; if the buffer is full it goes to the spool file.
+     */
+    public void submit(AuditRecord record) {
+        if (!buffer.offer(record)) {
+            spool(List.of(record));
+        }
+    }
+
+    private void run() {
+        List<AuditRecord> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                AuditRecord first = buffer.poll(flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    // Idle: a good moment to catch up on spooled records
+                    replaySpool();
+                    continue;
+                }
+                batch.add(first);
+                buffer.drainTo(batch, batchSize - 1);
+                write(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                // stop() was called; leave the loop and drain below
+            } catch (RuntimeException e) {
+                logger.error("Audit log writer error: {}", e.getMessage(), e);
+                batch.clear();
+            }
+        }
+        while (!buffer.isEmpty()) {
+            buffer.drainTo(batch, batchSize);
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private void write(List<AuditRecord> batch) {
+        try {
+            insert(batch);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to write {} audit record(s), spooling them: {}", batch.size(), e.getMessage());
+            spool(batch);
+            // Give the database time to recover before reading the spool back
+            replayNotBefore = System.currentTimeMillis() + REPLAY_BACKOFF_MILLIS;
+        }
+    }
+
+    private void insert(List<AuditRecord> records) {
+        List<Object[]> rows = new ArrayList<>(records.size());
+        for (AuditRecord record : records) {
+            rows.add(new Object[]{
+                    nextId(),
+                    record.tableName(),
+                    record.recordId(),
+                    record.action(),
+                    toJson(record.oldData()),
+                    toJson(record.newData()),
+                    record.changedBy(),
+                    Timestamp.valueOf(record.changedAt())
+            });
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+        writtenCounter.increment(records.size());
+    }
+
+    private int nextId() {
+        if (nextId >= idBlockEnd) {
+            Long low = jdbcTemplate.queryForObject(NEXT_ID_SQL, Long.class);
+            nextId = low;
+            idBlockEnd = low + ID_BLOCK_SIZE;
+        }
+        return Math.toIntExact(nextId++);
+    }
+
+    private String toJson(Object data) {
+        if (data == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(data);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialise audit data: " + e.getOriginalMessage(), e);
+        }
+    }
+
+    /**
+     * Appends records to the spool file, one JSON object per line.
+     */
+    private void spool(List<AuditRecord> records) {
+        spoolLock.lock();
+        try (BufferedWriter out = Files.newBufferedWriter(spoolFile, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (AuditRecord record : records) {
+                out.write(objectMapper.writeValueAsString(record));
+                out.newLine();
+            }
+            spooledCounter.increment(records.size());
+        } catch (IOException e) {
+            lostCounter.increment(records.size());
+            logger.error("Failed to spool {} audit record(s) to {}: {}", records.size(), spoolFile, e.getMessage(), e);
+        } finally {
+            spoolLock.unlock();
+        }
+    }
+
+    /**
+     * Moves the spool file aside and writes its records to the database in batches.
+     * If the database fails again the remaining records are spooled anew, so nothing is lost.
+     */
+    private void replaySpool() {
+        if (System.currentTimeMillis() < replayNotBefore) {
+            return;
+        }
+        Path replayFile = spoolFile.resolveSibling(spoolFile.getFileName() + ".replay");
+        spoolLock.lock();
+        try {
+            if (!Files.exists(replayFile)) {
+                if (!Files.exists(spoolFile)) {
+                    return;
+                }
+                Files.move(spoolFile, replayFile, StandardCopyOption.ATOMIC_MOVE);
+            }
+        } catch (IOException e) {
+            logger.warn("Cannot move audit spool file {} for replay: {}", spoolFile, e.getMessage());
+            return;
+        } finally {
+            spoolLock.unlock();
+        }
+
+        int replayed = 0;
+        try (BufferedReader in = Files.newBufferedReader(replayFile, StandardCharsets.UTF_8)) {
+            List<AuditRecord> batch = new ArrayList<>(batchSize);
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    batch.add(objectMapper.readValue(line, AuditRecord.class));
+                } catch (JsonProcessingException e) {
+                    lostCounter.increment();
+                    logger.error("Skipping unreadable spooled audit record: {}", e.getOriginalMessage());
+                    continue;
+                }
+                if (batch.size() == batchSize) {
+                    write(batch);
+                    replayed += batch.size();
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+                replayed += batch.size();
+            }
+            Files.delete(replayFile);
+            logger.info("Replayed {} spooled audit record(s)", replayed);
+        } catch (IOException e) {
+            // Keep the replay file; it is retried from the start after the backoff
+            replayNotBefore = System.currentTimeMillis() + REPLAY_BACKOFF_MILLIS;
+            logger.error("Failed to replay audit spool file {} after {} record(s): {}", replayFile, replayed, e.getMessage(), e);
+        }
+    }
+}
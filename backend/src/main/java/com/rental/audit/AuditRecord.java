@@ -0,0 +1,18 @@
+package com.rental.audit;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * One captured entity change, as queued for the audit writer. The data maps hold plain
+ * values only (associations are reduced to their IDs), so they can be serialised on
+ * another thread without touching the Hibernate session.
+ */
+public record AuditRecord(String tableName,
+                          Integer recordId,
+                          String action,
+                          Map<String, Object> oldData,
+                          Map<String, Object> newData,
+                          String changedBy,
+                          LocalDateTime changedAt) {
+}
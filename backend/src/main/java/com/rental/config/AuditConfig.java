@@ -0,0 +1,64 @@
+package com.rental.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rental.audit.AuditEventListener;
+import com.rental.audit.AuditLogWriter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Asynchronous audit log: Hibernate post-commit listeners feed the {@link AuditLogWriter}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "audit.enabled", havingValue = "true", matchIfMissing = true)
+public class AuditConfig {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AuditConfig.class);
+    
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public AuditLogWriter auditLogWriter(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                                         @Value("${audit.buffer-capacity:8192}") int capacity,
+                                         @Value("${audit.batch-size:50}") int batchSize,
+                                         @Value("${audit.flush-interval:PT0.2S}") Duration flushInterval,
+                                         @Value("${audit.spool-file:audit-spool.jsonl}") Path spoolFile) {
+        return new AuditLogWriter(jdbcTemplate, objectMapper, meterRegistry, capacity, batchSize, flushInterval, spoolFile);
+    }
+    
+    @Bean
+    public AuditEventListener auditEventListener(EntityManagerFactory entityManagerFactory, AuditLogWriter auditLogWriter,
+                                                 @Value("${audit.excluded-tables:}") List<String> excludedTables,
+                                                 @Value("${audit.redacted-properties:}") List<String> redactedProperties) {
+        // audit_log is written with JDBC, but never audit the audit trail itself
+        Set<String> excluded = new HashSet<>(excludedTables);
+        excluded.add("audit_log");
+        // Password hashes are never copied, whatever the configuration says
+        Set<String> redacted = new HashSet<>(redactedProperties);
+        redacted.add("app_user.password");
+        AuditEventListener listener = new AuditEventListener(auditLogWriter, excluded, redacted);
+        
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, listener);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, listener);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, listener);
+        logger.info("Audit log listeners registered (excluded tables: {}, redacted properties: {})", excluded, redacted);
+        return listener;
+    }
+}
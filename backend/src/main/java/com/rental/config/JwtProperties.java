@@ -0,0 +1,68 @@
+package com.rental.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * JWT signing settings.
+ * {@code secret} signs tokens without a {@code kid} header (and verifies tokens issued before
+ * key rotation was enabled). When {@code active-key-id} is set, new tokens are signed with that
+ * entry of {@code keys} and carry its id; every entry of {@code keys} is accepted on verify,
+ * so a retired key keeps working until its tokens expire. Once every token signed with the
+ * legacy secret has expired, set {@code accept-legacy-tokens} to false to reject tokens
+ * without a {@code kid}; the secret is then no longer needed.
+ */
+@Component
+@ConfigurationProperties(prefix = "spring.security.jwt")
+public class JwtProperties {
+
+    private String secret;
+    private Long expiration;
+    private String activeKeyId;
+    private Map<String, String> keys = new LinkedHashMap<>();
+    private boolean acceptLegacyTokens = true;
+
+    // Getters and Setters
+    public String getSecret() {
+        return secret;
+    }
+
+    public void setSecret(String secret) {
+        this.secret = secret;
+    }
+
+    public Long getExpiration() {
+        return expiration;
+    }
+
+    public void setExpiration(Long expiration) {
+        this.expiration = expiration;
+    }
+
+    public String getActiveKeyId() {
+        return activeKeyId;
+    }
+
+    public void setActiveKeyId(String activeKeyId) {
+        this.activeKeyId = activeKeyId;
+    }
+
+    public Map<String, String> getKeys() {
+        return keys;
+    }
+
+    public void setKeys(Map<String, String> keys) {
+        this.keys = keys;
+    }
+
+    public boolean isAcceptLegacyTokens() {
+        return acceptLegacyTokens;
+    }
+
+    public void setAcceptLegacyTokens(boolean acceptLegacyTokens) {
+        this.acceptLegacyTokens = acceptLegacyTokens;
+    }
+}
@@ -53,8 +53,10 @@ public class JwtSecurityConfig {
                     "/swagger-resources/**",
                     "/webjars/**",
                     "/actuator/health").permitAll()
+                // Metrics are scraped with a bearer token; only health stays open for probes
+                .requestMatchers("/actuator/prometheus", "/actuator/metrics/**").authenticated()
                 // Protected endpoints - require authentication
-                .requestMatchers("/products/**", "/customers/**", "/bookings/**").authenticated()
+                .requestMatchers("/products/**", "/customers/**", "/bookings/**", "/inventory/**", "/holds/**").authenticated()
                 .anyRequest().authenticated());
         
         return http.build();
@@ -66,7 +68,7 @@ public class JwtSecurityConfig {
         configuration.setAllowedOrigins(List.of("http://localhost:3000", "http://localhost:3001"));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
-        configuration.setExposedHeaders(Arrays.asList("Authorization", "Content-Type"));
+        configuration.setExposedHeaders(Arrays.asList("Authorization", "Content-Type", "Idempotent-Replayed", "X-Query-Count"));
         configuration.setAllowCredentials(true);
         configuration.setMaxAge(3600L);
         
@@ -0,0 +1,27 @@
+package com.rental.config;
+
+import com.rental.util.QueryCountInspector;
+import com.rental.util.QueryCounter;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Installs the statement inspector behind {@link QueryCounter} and sampled SQL logging.
+ * Per-request counting, the response header and the budget warning live in {@code QueryCountFilter}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "sql.query-guard.enabled", havingValue = "true", matchIfMissing = true)
+public class QueryGuardConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer queryCountInspectorCustomizer(
+            @Value("${sql.query-guard.capture-call-sites:true}") boolean captureCallSites,
+            @Value("${sql.log.sample-rate:0}") double sampleRate) {
+        QueryCounter.setCaptureCallSites(captureCallSites);
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new QueryCountInspector(sampleRate));
+    }
+}
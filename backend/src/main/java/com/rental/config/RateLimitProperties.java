@@ -0,0 +1,101 @@
+package com.rental.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Token-bucket limits for the public authentication endpoints.
+ * Each entry of {@code endpoints} names a path and optional limits per client IP and per
+ * account identifier (email or mobile number). A limit allows a burst of {@code capacity}
+ * requests and then one request per {@code refill-period}.
+ */
+@Component
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+    private long maxKeys = 100000;
+    private Map<String, Endpoint> endpoints = new LinkedHashMap<>();
+
+    // Getters and Setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getMaxKeys() {
+        return maxKeys;
+    }
+
+    public void setMaxKeys(long maxKeys) {
+        this.maxKeys = maxKeys;
+    }
+
+    public Map<String, Endpoint> getEndpoints() {
+        return endpoints;
+    }
+
+    public void setEndpoints(Map<String, Endpoint> endpoints) {
+        this.endpoints = endpoints;
+    }
+
+    public static class Endpoint {
+
+        private String path;
+        private Limit ip;
+        private Limit account;
+
+        public String getPath() {
+            return path;
+        }
+
+        public void setPath(String path) {
+            this.path = path;
+        }
+
+        public Limit getIp() {
+            return ip;
+        }
+
+        public void setIp(Limit ip) {
+            this.ip = ip;
+        }
+
+        public Limit getAccount() {
+            return account;
+        }
+
+        public void setAccount(Limit account) {
+            this.account = account;
+        }
+    }
+
+    public static class Limit {
+
+        private int capacity;
+        private Duration refillPeriod;
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+
+        public Duration getRefillPeriod() {
+            return refillPeriod;
+        }
+
+        public void setRefillPeriod(Duration refillPeriod) {
+            this.refillPeriod = refillPeriod;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.rental.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} background jobs: the outbox relay and its cleanup, the overdue
+ * rental scanner, the expired hold sweep and the role cache refresh. They run on the Boot
+ * scheduler, sized by {@code spring.task.scheduling.pool.size} so they do not queue behind
+ * each other.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -4,6 +4,7 @@ import com.rental.dto.request.LoginRequest;
 import com.rental.dto.request.RegisterRequest;
 import com.rental.dto.response.ApiResponse;
 import com.rental.dto.response.LoginResponse;
+import com.rental.service.AuthRateLimiter;
 import com.rental.service.AuthService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -32,6 +33,9 @@ public class AuthController {
 	@Autowired
     private AuthService authService;
     
+	@Autowired
+    private AuthRateLimiter rateLimiter;
+    
     @Value("${spring.security.jwt.expiration:86400000}")
     private Long jwtExpiration;
     
@@ -42,11 +46,13 @@ public class AuthController {
     @ApiResponses(value = {
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Login successful - JWT token set in cookie"),
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Invalid credentials"),
-        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid input data")
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid input data"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "429", description = "Rate limit exceeded or too many concurrent logins - retry after the Retry-After delay")
     })
     public ResponseEntity<ApiResponse<LoginResponse>> login(
             @Valid @RequestBody LoginRequest request) {
         logger.info("Login attempt for email/mobile: {}", request.getEmailOrMobile());
+        rateLimiter.checkAccount("login", request.getEmailOrMobile());
         
         try {
             LoginResponse response = authService.login(request);
@@ -79,11 +85,13 @@ public class AuthController {
     @Operation(summary = "User registration", description = "Register a new user account. Returns JWT token in HTTP-only cookie.")
     @ApiResponses(value = {
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Registration successful - JWT token set in cookie"),
-        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid input data or email already exists")
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid input data or email already exists"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "429", description = "Rate limit exceeded or too many concurrent registrations - retry after the Retry-After delay")
     })
     public ResponseEntity<ApiResponse<LoginResponse>> register(
             @Valid @RequestBody RegisterRequest request) {
         logger.info("Registration attempt for email: {}, username: {}", request.getEmail(), request.getUserName());
+        rateLimiter.checkAccount("register", request.getEmail());
         
         try {
             LoginResponse response = authService.register(request);
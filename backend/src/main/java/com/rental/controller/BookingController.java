@@ -1,9 +1,17 @@
 package com.rental.controller;
 
+import com.rental.dto.request.BatchReturnRequest;
 import com.rental.dto.request.BookingRequest;
+import com.rental.dto.request.BookingSearchCriteria;
+import com.rental.dto.request.ReturnRequest;
 import com.rental.dto.response.ApiResponse;
 import com.rental.dto.response.BookingResponse;
+import com.rental.dto.response.BulkOperationResponse;
+import com.rental.dto.response.CursorPage;
+import com.rental.service.BookingImportService;
 import com.rental.service.BookingService;
+import com.rental.service.IdempotencyService;
+import com.rental.service.ReturnService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -11,13 +19,18 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -29,19 +42,49 @@ public class BookingController {
     
     private static final Logger logger = LoggerFactory.getLogger(BookingController.class);
     
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int DEFAULT_IMPORT_CHUNK_SIZE = 50;
+    private static final int MAX_IMPORT_CHUNK_SIZE = 500;
+    private static final String TEXT_CSV_VALUE = "text/csv";
+    
     @Autowired
     private BookingService bookingService;
     
+    @Autowired
+    private IdempotencyService idempotencyService;
+    
+    @Autowired
+    private BookingImportService bookingImportService;
+    
+    @Autowired
+    private ReturnService returnService;
+    
     @GetMapping
-    @Operation(summary = "Get all bookings", description = "Retrieve a list of all bookings in the system")
+    @Operation(summary = "Get bookings", description = "Retrieve bookings newest first, one page at a time. " +
+            "Pass the nextCursor of a response as cursor to read the following page.")
     @ApiResponses(value = {
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Bookings retrieved successfully"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid cursor or filter"),
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Unauthorized - Authentication required")
     })
-    public ResponseEntity<ApiResponse<List<BookingResponse>>> getAllBookings() {
-        logger.info("GET /bookings - Retrieving all bookings");
-        List<BookingResponse> bookings = bookingService.getAllBookings();
-        return ResponseEntity.ok(ApiResponse.success("Bookings retrieved successfully", bookings));
+    public ResponseEntity<ApiResponse<List<BookingResponse>>> getAllBookings(
+            @Parameter(description = "Cursor returned as nextCursor by the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (1-" + MAX_PAGE_SIZE + ")") @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit,
+            @Parameter(description = "Booking status") @RequestParam(required = false) String status,
+            @Parameter(description = "Booking type (RENT / SALE)") @RequestParam(required = false) String bookingType,
+            @Parameter(description = "Customer ID") @RequestParam(required = false) Integer customerId,
+            @Parameter(description = "Booked on or after this date (yyyy-MM-dd)") 
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @Parameter(description = "Booked on or before this date (yyyy-MM-dd)") 
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate) {
+        logger.info("GET /bookings - Retrieving bookings page (limit {}, cursor {})", limit, cursor);
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        BookingSearchCriteria criteria = new BookingSearchCriteria(status, bookingType, customerId, fromDate, toDate);
+        CursorPage<BookingResponse> page = bookingService.getAllBookings(criteria, cursor, limit);
+        return ResponseEntity.ok(ApiResponse.success("Bookings retrieved successfully", page.getItems(), page.getNextCursor()));
     }
     
     @GetMapping("/{id}")
@@ -63,14 +106,78 @@ public class BookingController {
     @ApiResponses(value = {
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Booking created successfully"),
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid input data"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "422", description = "Idempotency-Key already used with a different request body"),
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Customer not found"),
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Unauthorized - Authentication required")
     })
     public ResponseEntity<ApiResponse<BookingResponse>> createBooking(
-            @Valid @RequestBody BookingRequest request) {
+            @Valid @RequestBody BookingRequest request,
+            @Parameter(description = "Optional client-generated key; retries with the same key return the original response") 
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
         logger.info("POST /bookings - Creating new booking for customer ID: {}", request.getCustomerId());
-        BookingResponse booking = bookingService.createBooking(request);
-        return ResponseEntity.ok(ApiResponse.success("Booking created successfully", booking));
+        return idempotencyService.execute("bookings", idempotencyKey, request, () -> {
+            BookingResponse booking = bookingService.createBooking(request);
+            return ResponseEntity.ok(ApiResponse.success("Booking created successfully", booking));
+        });
+    }
+    
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, TEXT_CSV_VALUE})
+    @Operation(summary = "Bulk import bookings", 
+            description = "Create many bookings from a JSON array of booking requests or a CSV file with a header line " +
+                    "(bookingRef, customerId, bookingType, status, variantId, quantity, unitPrice, subtotal, rentalStart, rentalEnd; " +
+                    "consecutive lines with the same bookingRef become one booking). The upload is streamed and written in " +
+                    "chunked transactions; the response reports the outcome of every booking.")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Import processed - see per-row results"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Upload is not a JSON array or CSV"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Unauthorized - Authentication required")
+    })
+    public ResponseEntity<ApiResponse<BulkOperationResponse>> importBookings(
+            HttpServletRequest request,
+            @Parameter(description = "Bookings written per transaction (max " + MAX_IMPORT_CHUNK_SIZE + ")") 
+            @RequestParam(defaultValue = "" + DEFAULT_IMPORT_CHUNK_SIZE) int chunkSize) throws IOException {
+        int effectiveChunkSize = Math.min(Math.max(chunkSize, 1), MAX_IMPORT_CHUNK_SIZE);
+        boolean csv = request.getContentType() != null && request.getContentType().startsWith(TEXT_CSV_VALUE);
+        logger.info("POST /bookings/bulk - Importing {} bookings in chunks of {}", csv ? "CSV" : "JSON", effectiveChunkSize);
+        
+        // The body is read as a stream, never bound as a whole
+        BulkOperationResponse report = csv
+                ? bookingImportService.importCsv(request.getInputStream(), effectiveChunkSize)
+                : bookingImportService.importJson(request.getInputStream(), effectiveChunkSize);
+        String message = String.format("Bulk import completed: %d created, %d failed", report.getSucceeded(), report.getFailed());
+        return ResponseEntity.ok(ApiResponse.success(message, report));
+    }
+    
+    @PostMapping("/{id}/returns")
+    @Operation(summary = "Record a return", description = "Record the units of a rental booking that came back, " +
+            "write RETURN transactions, restore inventory and optionally record damage")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Return recorded successfully"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid input, not a RENT booking or more units than outstanding"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Booking not found"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Unauthorized - Authentication required")
+    })
+    public ResponseEntity<ApiResponse<BookingResponse>> recordReturn(
+            @Parameter(description = "Booking ID", required = true) @PathVariable Integer id,
+            @Valid @RequestBody ReturnRequest request) {
+        logger.info("POST /bookings/{}/returns - Recording return of {} item(s)", id, request.getItems().size());
+        BookingResponse booking = returnService.processReturn(id, request);
+        return ResponseEntity.ok(ApiResponse.success("Return recorded successfully", booking));
+    }
+    
+    @PostMapping("/returns")
+    @Operation(summary = "Record a batch of returns", description = "Record the returns of many bookings in one call " +
+            "(e.g. a whole day's returns); the response reports the outcome of every return")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Batch processed - see per-row results"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid input data"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Unauthorized - Authentication required")
+    })
+    public ResponseEntity<ApiResponse<BulkOperationResponse>> recordReturns(@Valid @RequestBody BatchReturnRequest request) {
+        logger.info("POST /bookings/returns - Recording {} return(s)", request.getReturns().size());
+        BulkOperationResponse report = returnService.processReturns(request.getReturns());
+        String message = String.format("Returns processed: %d recorded, %d failed", report.getSucceeded(), report.getFailed());
+        return ResponseEntity.ok(ApiResponse.success(message, report));
     }
     
     @PutMapping("/{id}")
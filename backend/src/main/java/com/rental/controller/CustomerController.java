@@ -4,6 +4,7 @@ import com.rental.dto.request.CustomerRequest;
 import com.rental.dto.response.ApiResponse;
 import com.rental.dto.response.CustomerResponse;
 import com.rental.service.CustomerService;
+import com.rental.service.IdempotencyService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -32,6 +33,9 @@ public class CustomerController {
     @Autowired
     private CustomerService customerService;
     
+    @Autowired
+    private IdempotencyService idempotencyService;
+    
     @GetMapping
     @Operation(summary = "Get all customers", description = "Retrieve a list of all customers in the system")
     @ApiResponses(value = {
@@ -63,13 +67,18 @@ public class CustomerController {
     @ApiResponses(value = {
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Customer created successfully"),
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid input data"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "422", description = "Idempotency-Key already used with a different request body"),
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Unauthorized - Authentication required")
     })
     public ResponseEntity<ApiResponse<CustomerResponse>> createCustomer(
-            @Valid @RequestBody CustomerRequest request) {
+            @Valid @RequestBody CustomerRequest request,
+            @Parameter(description = "Optional client-generated key; retries with the same key return the original response") 
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
         logger.info("POST /customers - Creating new customer: {}", request.getCustomerName());
-        CustomerResponse customer = customerService.createCustomer(request);
-        return ResponseEntity.ok(ApiResponse.success("Customer created successfully", customer));
+        return idempotencyService.execute("customers", idempotencyKey, request, () -> {
+            CustomerResponse customer = customerService.createCustomer(request);
+            return ResponseEntity.ok(ApiResponse.success("Customer created successfully", customer));
+        });
     }
     
     @PutMapping("/{id}")
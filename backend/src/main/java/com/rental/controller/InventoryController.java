@@ -0,0 +1,50 @@
+package com.rental.controller;
+
+import com.rental.dto.response.ApiResponse;
+import com.rental.dto.response.AvailabilityResponse;
+import com.rental.service.AvailabilityService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/inventory")
+@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:3001"}, allowCredentials = "true")
+@Tag(name = "Inventory", description = "Inventory APIs - Date-range availability for rentals")
+@SecurityRequirement(name = "bearerAuth")
+public class InventoryController {
+    
+    private static final Logger logger = LoggerFactory.getLogger(InventoryController.class);
+    
+    @Autowired
+    private AvailabilityService availabilityService;
+    
+    @GetMapping("/availability")
+    @Operation(summary = "Get variant availability", description = "Number of units of a variant that are free for the whole date range")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Availability retrieved successfully"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid date range"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Inventory not found for variant"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Unauthorized - Authentication required")
+    })
+    public ResponseEntity<ApiResponse<AvailabilityResponse>> getAvailability(
+            @Parameter(description = "Product variant ID", required = true) @RequestParam Integer variantId,
+            @Parameter(description = "First day of the range (yyyy-MM-dd)", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last day of the range (yyyy-MM-dd)", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        logger.info("GET /inventory/availability - variant ID: {}, from {} to {}", variantId, from, to);
+        AvailabilityResponse availability = availabilityService.getAvailability(variantId, from, to);
+        return ResponseEntity.ok(ApiResponse.success("Availability retrieved successfully", availability));
+    }
+}
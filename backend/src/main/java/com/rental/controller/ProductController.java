@@ -77,6 +77,7 @@ public class ProductController {
     @Operation(summary = "Update product", description = "Update an existing product by its ID")
     @ApiResponses(value = {
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Product updated successfully"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "409", description = "Inventory changed concurrently - reload and retry"),
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Product not found"),
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid input data"),
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Unauthorized - Authentication required")
@@ -93,6 +94,7 @@ public class ProductController {
     @Operation(summary = "Delete product", description = "Soft delete a product by setting isActive to false")
     @ApiResponses(value = {
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Product deleted successfully"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "409", description = "Inventory changed concurrently - reload and retry"),
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Product not found"),
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Unauthorized - Authentication required")
     })
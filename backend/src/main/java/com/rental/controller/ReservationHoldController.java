@@ -0,0 +1,89 @@
+package com.rental.controller;
+
+import com.rental.dto.request.HoldConversionRequest;
+import com.rental.dto.request.ReservationHoldRequest;
+import com.rental.dto.response.ApiResponse;
+import com.rental.dto.response.BookingResponse;
+import com.rental.dto.response.ReservationHoldResponse;
+import com.rental.service.ReservationHoldService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/holds")
+@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:3001"}, allowCredentials = "true")
+@Tag(name = "Reservation Holds", description = "Reservation hold APIs - Set stock aside for a few minutes before booking")
+@SecurityRequirement(name = "bearerAuth")
+public class ReservationHoldController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReservationHoldController.class);
+
+    @Autowired
+    private ReservationHoldService reservationHoldService;
+
+    @PostMapping
+    @Operation(summary = "Create reservation hold", description = "Set quantity of a variant aside, optionally for a rental date range, until the hold expires")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Hold created successfully"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid input or insufficient inventory"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Variant or inventory not found"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Unauthorized - Authentication required")
+    })
+    public ResponseEntity<ApiResponse<ReservationHoldResponse>> createHold(@Valid @RequestBody ReservationHoldRequest request) {
+        logger.info("POST /holds - Creating hold for variant ID: {}, quantity: {}", request.getVariantId(), request.getQuantity());
+        ReservationHoldResponse hold = reservationHoldService.createHold(request);
+        return ResponseEntity.ok(ApiResponse.success("Reservation hold created successfully", hold));
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Get reservation hold by ID", description = "Retrieve a reservation hold and its current status")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Hold retrieved successfully"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Hold not found"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Unauthorized - Authentication required")
+    })
+    public ResponseEntity<ApiResponse<ReservationHoldResponse>> getHoldById(
+            @Parameter(description = "Hold ID", required = true) @PathVariable Integer id) {
+        logger.info("GET /holds/{} - Fetching hold", id);
+        ReservationHoldResponse hold = reservationHoldService.getHoldById(id);
+        return ResponseEntity.ok(ApiResponse.success("Reservation hold retrieved successfully", hold));
+    }
+
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Release reservation hold", description = "Give the held stock back before the hold expires")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Hold released successfully"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Hold not found"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Unauthorized - Authentication required")
+    })
+    public ResponseEntity<ApiResponse<ReservationHoldResponse>> releaseHold(
+            @Parameter(description = "Hold ID", required = true) @PathVariable Integer id) {
+        logger.info("DELETE /holds/{} - Releasing hold", id);
+        ReservationHoldResponse hold = reservationHoldService.releaseHold(id);
+        return ResponseEntity.ok(ApiResponse.success("Reservation hold released successfully", hold));
+    }
+
+    @PostMapping("/convert")
+    @Operation(summary = "Convert holds into a booking", description = "Create one booking from active holds without a second availability check")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Booking created successfully"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid input"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Hold or customer not found"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "410", description = "A hold has expired, been released or already been converted"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Unauthorized - Authentication required")
+    })
+    public ResponseEntity<ApiResponse<BookingResponse>> convertHolds(@Valid @RequestBody HoldConversionRequest request) {
+        logger.info("POST /holds/convert - Converting {} hold(s) for customer ID: {}", request.getHolds().size(), request.getCustomerId());
+        BookingResponse booking = reservationHoldService.convertHolds(request);
+        return ResponseEntity.ok(ApiResponse.success("Booking created successfully", booking));
+    }
+}
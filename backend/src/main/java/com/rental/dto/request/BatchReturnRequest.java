@@ -0,0 +1,24 @@
+package com.rental.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BatchReturnRequest {
+    @NotEmpty(message = "At least one return is required")
+    @Size(max = 500, message = "At most 500 returns can be processed per call")
+    @Valid
+    private List<ReturnRequest> returns;
+
+    public List<ReturnRequest> getReturns() {
+        return returns;
+    }
+
+    public void setReturns(List<ReturnRequest> returns) {
+        this.returns = returns;
+    }
+}
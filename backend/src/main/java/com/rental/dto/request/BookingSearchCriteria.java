@@ -0,0 +1,67 @@
+package com.rental.dto.request;
+
+import java.time.LocalDate;
+
+/**
+ * Optional server-side filters for the booking list. Null fields are ignored.
+ */
+public class BookingSearchCriteria {
+    private String status;
+    private String bookingType;
+    private Integer customerId;
+    private LocalDate fromDate;
+    private LocalDate toDate;
+    
+    // Constructors
+    public BookingSearchCriteria() {
+    }
+    
+    public BookingSearchCriteria(String status, String bookingType, Integer customerId, LocalDate fromDate, LocalDate toDate) {
+        this.status = status;
+        this.bookingType = bookingType;
+        this.customerId = customerId;
+        this.fromDate = fromDate;
+        this.toDate = toDate;
+    }
+    
+    // Getters and Setters
+    public String getStatus() {
+        return status;
+    }
+    
+    public void setStatus(String status) {
+        this.status = status;
+    }
+    
+    public String getBookingType() {
+        return bookingType;
+    }
+    
+    public void setBookingType(String bookingType) {
+        this.bookingType = bookingType;
+    }
+    
+    public Integer getCustomerId() {
+        return customerId;
+    }
+    
+    public void setCustomerId(Integer customerId) {
+        this.customerId = customerId;
+    }
+    
+    public LocalDate getFromDate() {
+        return fromDate;
+    }
+    
+    public void setFromDate(LocalDate fromDate) {
+        this.fromDate = fromDate;
+    }
+    
+    public LocalDate getToDate() {
+        return toDate;
+    }
+    
+    public void setToDate(LocalDate toDate) {
+        this.toDate = toDate;
+    }
+}
@@ -0,0 +1,94 @@
+package com.rental.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+public class HoldConversionRequest {
+    @NotNull(message = "Customer ID is required")
+    private Integer customerId;
+    
+    @NotBlank(message = "Booking type is required")
+    @Size(max = 20, message = "Booking type must not exceed 20 characters")
+    private String bookingType; // RENT / SALE
+    
+    @Size(max = 20, message = "Status must not exceed 20 characters")
+    private String status;
+    
+    @NotEmpty(message = "At least one hold is required")
+    @Valid
+    private List<HoldItem> holds;
+
+    public Integer getCustomerId() {
+        return customerId;
+    }
+
+    public void setCustomerId(Integer customerId) {
+        this.customerId = customerId;
+    }
+
+    public String getBookingType() {
+        return bookingType;
+    }
+
+    public void setBookingType(String bookingType) {
+        this.bookingType = bookingType;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public List<HoldItem> getHolds() {
+        return holds;
+    }
+
+    public void setHolds(List<HoldItem> holds) {
+        this.holds = holds;
+    }
+    
+    @Data
+    public static class HoldItem {
+        @NotNull(message = "Hold ID is required")
+        private Integer holdId;
+        
+        private BigDecimal unitPrice;
+        
+        private BigDecimal subtotal;
+
+        public Integer getHoldId() {
+            return holdId;
+        }
+
+        public void setHoldId(Integer holdId) {
+            this.holdId = holdId;
+        }
+
+        public BigDecimal getUnitPrice() {
+            return unitPrice;
+        }
+
+        public void setUnitPrice(BigDecimal unitPrice) {
+            this.unitPrice = unitPrice;
+        }
+
+        public BigDecimal getSubtotal() {
+            return subtotal;
+        }
+
+        public void setSubtotal(BigDecimal subtotal) {
+            this.subtotal = subtotal;
+        }
+    }
+}
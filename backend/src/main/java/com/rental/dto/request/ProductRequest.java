@@ -116,6 +116,8 @@ public class ProductRequest {
         
         // Inventory information
         private Integer availableQuantity = 0;
+        // Inventory version the client read; when set, a quantity change is rejected if the stock moved since
+        private Long inventoryVersion;
         private String availabilityStatus;
         private LocalDate expectedRestoreDate;
         private LocalDate nextAvailabilityDate;
@@ -174,6 +176,12 @@ public class ProductRequest {
 		public void setAvailableQuantity(Integer availableQuantity) {
 			this.availableQuantity = availableQuantity;
 		}
+		public Long getInventoryVersion() {
+			return inventoryVersion;
+		}
+		public void setInventoryVersion(Long inventoryVersion) {
+			this.inventoryVersion = inventoryVersion;
+		}
 		public String getAvailabilityStatus() {
 			return availabilityStatus;
 		}
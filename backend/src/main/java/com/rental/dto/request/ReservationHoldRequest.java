@@ -0,0 +1,66 @@
+package com.rental.dto.request;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+public class ReservationHoldRequest {
+    @NotNull(message = "Variant ID is required")
+    private Integer variantId;
+    
+    @NotNull(message = "Quantity is required")
+    @Min(value = 1, message = "Quantity must be at least 1")
+    private Integer quantity;
+    
+    // Optional: both set to hold calendar capacity for a rental window
+    private LocalDate rentalStart;
+    
+    private LocalDate rentalEnd;
+    
+    // Optional: defaults to holds.default-minutes
+    @Min(value = 1, message = "Hold minutes must be at least 1")
+    private Integer holdMinutes;
+
+    public Integer getVariantId() {
+        return variantId;
+    }
+
+    public void setVariantId(Integer variantId) {
+        this.variantId = variantId;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    public LocalDate getRentalStart() {
+        return rentalStart;
+    }
+
+    public void setRentalStart(LocalDate rentalStart) {
+        this.rentalStart = rentalStart;
+    }
+
+    public LocalDate getRentalEnd() {
+        return rentalEnd;
+    }
+
+    public void setRentalEnd(LocalDate rentalEnd) {
+        this.rentalEnd = rentalEnd;
+    }
+
+    public Integer getHoldMinutes() {
+        return holdMinutes;
+    }
+
+    public void setHoldMinutes(Integer holdMinutes) {
+        this.holdMinutes = holdMinutes;
+    }
+}
@@ -0,0 +1,92 @@
+package com.rental.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+public class ReturnRequest {
+    private Integer bookingId; // Batch returns only; single returns take it from the path
+    
+    private LocalDate returnDate; // Defaults to today
+    
+    @NotEmpty(message = "At least one returned item is required")
+    @Valid
+    private List<ReturnItemRequest> items;
+
+    public Integer getBookingId() {
+        return bookingId;
+    }
+
+    public void setBookingId(Integer bookingId) {
+        this.bookingId = bookingId;
+    }
+
+    public LocalDate getReturnDate() {
+        return returnDate;
+    }
+
+    public void setReturnDate(LocalDate returnDate) {
+        this.returnDate = returnDate;
+    }
+
+    public List<ReturnItemRequest> getItems() {
+        return items;
+    }
+
+    public void setItems(List<ReturnItemRequest> items) {
+        this.items = items;
+    }
+    
+    @Data
+    public static class ReturnItemRequest {
+        @NotNull(message = "Variant ID is required")
+        private Integer variantId;
+        
+        @NotNull(message = "Quantity is required")
+        @Min(value = 1, message = "Quantity must be at least 1")
+        private Integer quantity;
+        
+        private String notes;
+        
+        // Optional: recorded against the RETURN transaction
+        private BookingRequest.DamageRecordRequest damageRecord;
+
+        public Integer getVariantId() {
+            return variantId;
+        }
+
+        public void setVariantId(Integer variantId) {
+            this.variantId = variantId;
+        }
+
+        public Integer getQuantity() {
+            return quantity;
+        }
+
+        public void setQuantity(Integer quantity) {
+            this.quantity = quantity;
+        }
+
+        public String getNotes() {
+            return notes;
+        }
+
+        public void setNotes(String notes) {
+            this.notes = notes;
+        }
+
+        public BookingRequest.DamageRecordRequest getDamageRecord() {
+            return damageRecord;
+        }
+
+        public void setDamageRecord(BookingRequest.DamageRecordRequest damageRecord) {
+            this.damageRecord = damageRecord;
+        }
+    }
+}
@@ -7,6 +7,7 @@ public class ApiResponse<T> {
     private boolean success;
     private String message;
     private T data;
+    private String nextCursor;
     
     // Constructors
     public ApiResponse() {
@@ -43,6 +44,14 @@ public class ApiResponse<T> {
         this.data = data;
     }
     
+    public String getNextCursor() {
+        return nextCursor;
+    }
+    
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+    
     // Static factory methods
     public static <T> ApiResponse<T> success(T data) {
         return new ApiResponse<T>(true, "Success", data);
@@ -52,6 +61,12 @@ public class ApiResponse<T> {
         return new ApiResponse<T>(true, message, data);
     }
     
+    public static <T> ApiResponse<T> success(String message, T data, String nextCursor) {
+        ApiResponse<T> response = new ApiResponse<T>(true, message, data);
+        response.setNextCursor(nextCursor);
+        return response;
+    }
+    
     public static <T> ApiResponse<T> error(String message) {
         return new ApiResponse<T>(false, message, (T) null);
     }
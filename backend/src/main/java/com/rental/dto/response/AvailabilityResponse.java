@@ -0,0 +1,75 @@
+package com.rental.dto.response;
+
+import java.time.LocalDate;
+
+public class AvailabilityResponse {
+    private Integer variantId;
+    private LocalDate fromDate;
+    private LocalDate toDate;
+    private Integer totalQuantity;
+    private Integer reservedQuantity;
+    private Integer availableQuantity;
+    
+    // Constructors
+    public AvailabilityResponse() {
+    }
+    
+    public AvailabilityResponse(Integer variantId, LocalDate fromDate, LocalDate toDate,
+                                Integer totalQuantity, Integer reservedQuantity, Integer availableQuantity) {
+        this.variantId = variantId;
+        this.fromDate = fromDate;
+        this.toDate = toDate;
+        this.totalQuantity = totalQuantity;
+        this.reservedQuantity = reservedQuantity;
+        this.availableQuantity = availableQuantity;
+    }
+    
+    // Getters and Setters
+    public Integer getVariantId() {
+        return variantId;
+    }
+    
+    public void setVariantId(Integer variantId) {
+        this.variantId = variantId;
+    }
+    
+    public LocalDate getFromDate() {
+        return fromDate;
+    }
+    
+    public void setFromDate(LocalDate fromDate) {
+        this.fromDate = fromDate;
+    }
+    
+    public LocalDate getToDate() {
+        return toDate;
+    }
+    
+    public void setToDate(LocalDate toDate) {
+        this.toDate = toDate;
+    }
+    
+    public Integer getTotalQuantity() {
+        return totalQuantity;
+    }
+    
+    public void setTotalQuantity(Integer totalQuantity) {
+        this.totalQuantity = totalQuantity;
+    }
+    
+    public Integer getReservedQuantity() {
+        return reservedQuantity;
+    }
+    
+    public void setReservedQuantity(Integer reservedQuantity) {
+        this.reservedQuantity = reservedQuantity;
+    }
+    
+    public Integer getAvailableQuantity() {
+        return availableQuantity;
+    }
+    
+    public void setAvailableQuantity(Integer availableQuantity) {
+        this.availableQuantity = availableQuantity;
+    }
+}
@@ -0,0 +1,121 @@
+package com.rental.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-row report of a bulk operation. Rows are numbered from 1 in upload order
+ * (for CSV, the first data line of the booking).
+ */
+public class BulkOperationResponse {
+    private int total;
+    private int succeeded;
+    private int failed;
+    private List<RowResult> results = new ArrayList<>();
+    
+    // Constructors
+    public BulkOperationResponse() {
+    }
+    
+    public void addSuccess(int row, Integer id) {
+        results.add(new RowResult(row, RowResult.SUCCEEDED, id, null));
+        total++;
+        succeeded++;
+    }
+    
+    public void addFailure(int row, String message) {
+        results.add(new RowResult(row, RowResult.FAILED, null, message));
+        total++;
+        failed++;
+    }
+    
+    // Getters and Setters
+    public int getTotal() {
+        return total;
+    }
+    
+    public void setTotal(int total) {
+        this.total = total;
+    }
+    
+    public int getSucceeded() {
+        return succeeded;
+    }
+    
+    public void setSucceeded(int succeeded) {
+        this.succeeded = succeeded;
+    }
+    
+    public int getFailed() {
+        return failed;
+    }
+    
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+    
+    public List<RowResult> getResults() {
+        return results;
+    }
+    
+    public void setResults(List<RowResult> results) {
+        this.results = results;
+    }
+    
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class RowResult {
+        public static final String SUCCEEDED = "SUCCEEDED";
+        public static final String FAILED = "FAILED";
+        
+        private int row;
+        private String status;
+        private Integer id;
+        private String message;
+        
+        // Constructors
+        public RowResult() {
+        }
+        
+        public RowResult(int row, String status, Integer id, String message) {
+            this.row = row;
+            this.status = status;
+            this.id = id;
+            this.message = message;
+        }
+        
+        // Getters and Setters
+        public int getRow() {
+            return row;
+        }
+        
+        public void setRow(int row) {
+            this.row = row;
+        }
+        
+        public String getStatus() {
+            return status;
+        }
+        
+        public void setStatus(String status) {
+            this.status = status;
+        }
+        
+        public Integer getId() {
+            return id;
+        }
+        
+        public void setId(Integer id) {
+            this.id = id;
+        }
+        
+        public String getMessage() {
+            return message;
+        }
+        
+        public void setMessage(String message) {
+            this.message = message;
+        }
+    }
+}
@@ -49,6 +49,7 @@ public class ProductResponse {
         // Inventory information
         private Integer inventoryId;
         private Integer availableQuantity;
+        private Long inventoryVersion;
         private String availabilityStatus;
         private LocalDate expectedRestoreDate;
         private LocalDate nextAvailabilityDate;
@@ -128,6 +129,12 @@ public class ProductResponse {
 		public void setAvailableQuantity(Integer availableQuantity) {
 			this.availableQuantity = availableQuantity;
 		}
+		public Long getInventoryVersion() {
+			return inventoryVersion;
+		}
+		public void setInventoryVersion(Long inventoryVersion) {
+			this.inventoryVersion = inventoryVersion;
+		}
 		public String getAvailabilityStatus() {
 			return availabilityStatus;
 		}
@@ -0,0 +1,111 @@
+package com.rental.dto.response;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+public class ReservationHoldResponse {
+    private Integer holdId;
+    private Integer variantId;
+    private String productName;
+    private String sizeCode;
+    private Integer quantity;
+    private LocalDate rentalStart;
+    private LocalDate rentalEnd;
+    private String status;
+    private LocalDateTime expiresAt;
+    private Integer bookingId;
+    private LocalDateTime createdAt;
+    
+    // Constructors
+    public ReservationHoldResponse() {
+    }
+    
+    // Getters and Setters
+    public Integer getHoldId() {
+        return holdId;
+    }
+    
+    public void setHoldId(Integer holdId) {
+        this.holdId = holdId;
+    }
+    
+    public Integer getVariantId() {
+        return variantId;
+    }
+    
+    public void setVariantId(Integer variantId) {
+        this.variantId = variantId;
+    }
+    
+    public String getProductName() {
+        return productName;
+    }
+    
+    public void setProductName(String productName) {
+        this.productName = productName;
+    }
+    
+    public String getSizeCode() {
+        return sizeCode;
+    }
+    
+    public void setSizeCode(String sizeCode) {
+        this.sizeCode = sizeCode;
+    }
+    
+    public Integer getQuantity() {
+        return quantity;
+    }
+    
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+    
+    public LocalDate getRentalStart() {
+        return rentalStart;
+    }
+    
+    public void setRentalStart(LocalDate rentalStart) {
+        this.rentalStart = rentalStart;
+    }
+    
+    public LocalDate getRentalEnd() {
+        return rentalEnd;
+    }
+    
+    public void setRentalEnd(LocalDate rentalEnd) {
+        this.rentalEnd = rentalEnd;
+    }
+    
+    public String getStatus() {
+        return status;
+    }
+    
+    public void setStatus(String status) {
+        this.status = status;
+    }
+    
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+    
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+    
+    public Integer getBookingId() {
+        return bookingId;
+    }
+    
+    public void setBookingId(Integer bookingId) {
+        this.bookingId = bookingId;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -18,7 +18,8 @@ import java.time.LocalDateTime;
 public class AuditLog {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "auditLogSeq")
+    @SequenceGenerator(name = "auditLogSeq", sequenceName = "audit_log_audit_id_seq", schema = "rental_management", allocationSize = 50)
     @Column(name = "audit_id")
     private Integer auditId;
     
@@ -21,7 +21,8 @@ import java.time.LocalDateTime;
 public class BookingItem {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookingItemSeq")
+    @SequenceGenerator(name = "bookingItemSeq", sequenceName = "booking_item_booking_item_id_seq", schema = "rental_management", allocationSize = 50)
     @Column(name = "booking_item_id")
     private Integer bookingItemId;
     
@@ -19,7 +19,8 @@ import java.time.LocalDateTime;
 public class DamageRecord {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "damageRecordSeq")
+    @SequenceGenerator(name = "damageRecordSeq", sequenceName = "damage_record_damage_id_seq", schema = "rental_management", allocationSize = 50)
     @Column(name = "damage_id")
     private Integer damageId;
     
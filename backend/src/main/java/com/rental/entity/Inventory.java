@@ -40,6 +40,11 @@ public class Inventory {
     @Column(name = "next_availability_date")
     private LocalDate nextAvailabilityDate;
     
+    // Optimistic lock: concurrent writers of the same row fail instead of overwriting each other
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+    
     @Column(name = "created_by", length = 100)
     private String createdBy;
     
@@ -122,6 +127,14 @@ public class Inventory {
 		this.nextAvailabilityDate = nextAvailabilityDate;
 	}
 
+	public Long getVersion() {
+		return version;
+	}
+
+	public void setVersion(Long version) {
+		this.version = version;
+	}
+
 	public String getCreatedBy() {
 		return createdBy;
 	}
@@ -19,7 +19,8 @@ import java.time.LocalDateTime;
 public class InventoryTransaction {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inventoryTransactionSeq")
+    @SequenceGenerator(name = "inventoryTransactionSeq", sequenceName = "inventory_transaction_transaction_id_seq", schema = "rental_management", allocationSize = 50)
     @Column(name = "transaction_id")
     private Integer transactionId;
     
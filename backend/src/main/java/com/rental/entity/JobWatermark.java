@@ -0,0 +1,32 @@
+package com.rental.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Progress marker of an incremental background job, e.g. the last day the overdue
+ * scanner has charged late fees for. The row is locked while the job runs, so only
+ * one instance processes a given job at a time.
+ */
+@Entity
+@Table(name = "job_watermark", schema = "rental_management")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobWatermark {
+    
+    @Id
+    @Column(name = "job_name", length = 50)
+    private String jobName;
+    
+    @Column(name = "watermark_date")
+    private LocalDate watermarkDate;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,60 @@
+package com.rental.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * An event for downstream consumers, written in the same transaction as the change it
+ * describes and delivered afterwards by the outbox relay.
+ */
+@Entity
+@Table(name = "outbox_event", schema = "rental_management")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@EntityListeners(AuditingEntityListener.class)
+public class OutboxEvent {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outboxEventSeq")
+    @SequenceGenerator(name = "outboxEventSeq", sequenceName = "outbox_event_event_id_seq", schema = "rental_management", allocationSize = 50)
+    @Column(name = "event_id")
+    private Long eventId;
+    
+    @Column(name = "aggregate_type", nullable = false, length = 30)
+    private String aggregateType; // BOOKING, INVENTORY
+    
+    @Column(name = "aggregate_id", nullable = false)
+    private Integer aggregateId;
+    
+    @Column(name = "event_type", nullable = false, length = 50)
+    private String eventType;
+    
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "payload", nullable = false, columnDefinition = "JSONB")
+    private String payload;
+    
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts = 0;
+    
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+    
+    @Column(name = "last_attempt_at")
+    private LocalDateTime lastAttemptAt;
+    
+    @CreatedDate
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+}
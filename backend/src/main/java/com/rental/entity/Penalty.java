@@ -19,7 +19,8 @@ import java.time.LocalDateTime;
 public class Penalty {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "penaltySeq")
+    @SequenceGenerator(name = "penaltySeq", sequenceName = "penalty_penalty_id_seq", schema = "rental_management", allocationSize = 50)
     @Column(name = "penalty_id")
     private Integer penaltyId;
     
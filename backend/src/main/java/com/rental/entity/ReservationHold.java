@@ -0,0 +1,162 @@
+package com.rental.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Stock set aside for a short time (try-on, payment) before it becomes a booking.
+ * Holds with rental dates take capacity from the availability calendar; holds without
+ * dates take on-hand stock from the inventory row and give it back when they expire.
+ */
+@Entity
+@Table(name = "reservation_hold", schema = "rental_management")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@EntityListeners(AuditingEntityListener.class)
+public class ReservationHold {
+    
+    public static final String STATUS_ACTIVE = "ACTIVE";
+    public static final String STATUS_CONVERTED = "CONVERTED";
+    public static final String STATUS_EXPIRED = "EXPIRED";
+    public static final String STATUS_RELEASED = "RELEASED";
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "hold_id")
+    private Integer holdId;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "variant_id", nullable = false)
+    private ProductVariant variant;
+    
+    @Column(name = "quantity", nullable = false)
+    private Integer quantity;
+    
+    @Column(name = "rental_start")
+    private LocalDate rentalStart;
+    
+    @Column(name = "rental_end")
+    private LocalDate rentalEnd;
+    
+    @Column(name = "status", nullable = false, length = 20)
+    private String status = STATUS_ACTIVE;
+    
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "booking_id")
+    private Booking booking;
+    
+    @Column(name = "created_by", length = 100)
+    private String createdBy;
+    
+    @CreatedDate
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @LastModifiedDate
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    public boolean isDated() {
+        return rentalStart != null && rentalEnd != null;
+    }
+
+	public Integer getHoldId() {
+		return holdId;
+	}
+
+	public void setHoldId(Integer holdId) {
+		this.holdId = holdId;
+	}
+
+	public ProductVariant getVariant() {
+		return variant;
+	}
+
+	public void setVariant(ProductVariant variant) {
+		this.variant = variant;
+	}
+
+	public Integer getQuantity() {
+		return quantity;
+	}
+
+	public void setQuantity(Integer quantity) {
+		this.quantity = quantity;
+	}
+
+	public LocalDate getRentalStart() {
+		return rentalStart;
+	}
+
+	public void setRentalStart(LocalDate rentalStart) {
+		this.rentalStart = rentalStart;
+	}
+
+	public LocalDate getRentalEnd() {
+		return rentalEnd;
+	}
+
+	public void setRentalEnd(LocalDate rentalEnd) {
+		this.rentalEnd = rentalEnd;
+	}
+
+	public String getStatus() {
+		return status;
+	}
+
+	public void setStatus(String status) {
+		this.status = status;
+	}
+
+	public LocalDateTime getExpiresAt() {
+		return expiresAt;
+	}
+
+	public void setExpiresAt(LocalDateTime expiresAt) {
+		this.expiresAt = expiresAt;
+	}
+
+	public Booking getBooking() {
+		return booking;
+	}
+
+	public void setBooking(Booking booking) {
+		this.booking = booking;
+	}
+
+	public String getCreatedBy() {
+		return createdBy;
+	}
+
+	public void setCreatedBy(String createdBy) {
+		this.createdBy = createdBy;
+	}
+
+	public LocalDateTime getCreatedAt() {
+		return createdAt;
+	}
+
+	public void setCreatedAt(LocalDateTime createdAt) {
+		this.createdAt = createdAt;
+	}
+
+	public LocalDateTime getUpdatedAt() {
+		return updatedAt;
+	}
+
+	public void setUpdatedAt(LocalDateTime updatedAt) {
+		this.updatedAt = updatedAt;
+	}
+}
@@ -0,0 +1,11 @@
+package com.rental.event;
+
+/**
+ * Delivers outbox events to downstream consumers (message broker, webhook, ...).
+ * Called by the {@link OutboxRelay} on its own thread, never on a request thread.
+ * Throwing marks the event as failed; it is retried on the next relay run.
+ */
+public interface EventPublisher {
+    
+    void publish(OutboxMessage message) throws Exception;
+}
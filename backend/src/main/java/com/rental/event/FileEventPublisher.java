@@ -0,0 +1,49 @@
+package com.rental.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Stand-in publisher that appends each event as one JSON line to a local file, for
+ * consumers that tail the file until a broker is in place.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.publisher", havingValue = "file")
+public class FileEventPublisher implements EventPublisher {
+    
+    private static final Logger logger = LoggerFactory.getLogger(FileEventPublisher.class);
+    
+    private final ObjectMapper objectMapper;
+    private final Path file;
+    private final ReentrantLock lock = new ReentrantLock();
+    
+    public FileEventPublisher(ObjectMapper objectMapper, @Value("${outbox.file.path:outbox-events.jsonl}") Path file) {
+        this.objectMapper = objectMapper;
+        this.file = file;
+        logger.info("Publishing outbox events to {}", file.toAbsolutePath());
+    }
+    
+    @Override
+    public void publish(OutboxMessage message) throws IOException {
+        String line = objectMapper.writeValueAsString(message) + System.lineSeparator();
+        lock.lock();
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            out.write(line);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.rental.event;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Stand-in publisher that writes each event to the application log.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.publisher", havingValue = "log", matchIfMissing = true)
+public class LoggingEventPublisher implements EventPublisher {
+    
+    private static final Logger logger = LoggerFactory.getLogger(LoggingEventPublisher.class);
+    
+    @Override
+    public void publish(OutboxMessage message) {
+        logger.info("Event {} {} for {} ID: {}: {}", message.eventId(), message.eventType(),
+                message.aggregateType(), message.aggregateId(), message.payload());
+    }
+}
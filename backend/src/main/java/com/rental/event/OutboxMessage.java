@@ -0,0 +1,18 @@
+package com.rental.event;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import java.time.LocalDateTime;
+
+/**
+ * An outbox event as handed to an {@link EventPublisher}. The payload is the JSON document
+ * stored with the event; eventId increases in commit order per writer and lets consumers
+ * drop duplicates, since delivery is at-least-once.
+ */
+public record OutboxMessage(Long eventId,
+                            String aggregateType,
+                            Integer aggregateId,
+                            String eventType,
+                            @JsonRawValue String payload,
+                            LocalDateTime createdAt) {
+}
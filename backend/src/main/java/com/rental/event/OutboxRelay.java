@@ -0,0 +1,152 @@
+package com.rental.event;
+
+import com.rental.entity.OutboxEvent;
+import com.rental.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Delivers outbox events in the background.
+ * Each batch locks the oldest due rows with FOR UPDATE SKIP LOCKED, publishes them in
+ * event ID order and marks them delivered in the same transaction; a crash before commit
+ * means the batch is delivered again (at-least-once). A failing event is retried with
+ * exponential backoff and dead-lettered (left undelivered, with its last error) after
+ * {@code outbox.relay.max-attempts}; it does not hold up other aggregates' events.
+ * Events of the same aggregate are held back while an earlier one is being retried.
+ * No delivery order is guaranteed beyond that: with several relay instances each one locks
+ * a different set of rows, so consumers should order and de-duplicate by event ID.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+    
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+    private static final int MAX_ERROR_LENGTH = 1000;
+    
+    private final OutboxEventRepository outboxEventRepository;
+    private final EventPublisher publisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration backoff;
+    private final Duration maxBackoff;
+    private final Duration retention;
+    private final Counter publishedCounter;
+    private final Counter failedCounter;
+    private final Counter deadCounter;
+    private final Timer deliveryLag;
+    
+    public OutboxRelay(OutboxEventRepository outboxEventRepository, EventPublisher publisher,
+                       PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                       @Value("${outbox.relay.batch-size:100}") int batchSize,
+                       @Value("${outbox.relay.max-attempts:10}") int maxAttempts,
+                       @Value("${outbox.relay.backoff:PT5S}") Duration backoff,
+                       @Value("${outbox.relay.max-backoff:PT10M}") Duration maxBackoff,
+                       @Value("${outbox.retention:P7D}") Duration retention) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.publisher = publisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.backoff = backoff;
+        this.maxBackoff = maxBackoff;
+        this.retention = retention;
+        this.publishedCounter = Counter.builder("outbox.events.published").register(meterRegistry);
+        this.failedCounter = Counter.builder("outbox.events.failed").register(meterRegistry);
+        this.deadCounter = Counter.builder("outbox.events.dead")
+                .description("Outbox events given up on after the maximum number of attempts")
+                .register(meterRegistry);
+        this.deliveryLag = Timer.builder("outbox.delivery.lag")
+                .description("Time from writing an outbox event to publishing it")
+                .register(meterRegistry);
+    }
+    
+    @Scheduled(fixedDelayString = "${outbox.relay.interval:PT1S}")
+    public void relay() {
+        try {
+            BatchResult result;
+            do {
+                result = transactionTemplate.execute(status -> relayBatch());
+            } while (result != null && result.locked() == batchSize && result.published() > 0);
+        } catch (RuntimeException e) {
+            logger.error("Outbox relay failed: {}", e.getMessage(), e);
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${outbox.cleanup-interval:PT1H}", initialDelayString = "${outbox.cleanup-interval:PT1H}")
+    public void deletePublished() {
+        try {
+            Integer deleted = transactionTemplate.execute(status ->
+                    outboxEventRepository.deletePublishedBefore(LocalDateTime.now().minus(retention)));
+            logger.info("Deleted {} delivered outbox event(s) older than {}", deleted, retention);
+        } catch (RuntimeException e) {
+            logger.error("Outbox cleanup failed: {}", e.getMessage(), e);
+        }
+    }
+    
+    private BatchResult relayBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> events = outboxEventRepository.lockUnpublished(batchSize, maxAttempts,
+                backoff.toSeconds(), maxBackoff.toSeconds(), now);
+        List<Long> published = new ArrayList<>(events.size());
+        // Aggregates with a failed event in this batch; their later events wait for the retry
+        Set<String> failedAggregates = new HashSet<>();
+        for (OutboxEvent event : events) {
+            String aggregate = event.getAggregateType() + ":" + event.getAggregateId();
+            if (failedAggregates.contains(aggregate)) {
+                continue;
+            }
+            try {
+                publisher.publish(new OutboxMessage(event.getEventId(), event.getAggregateType(), event.getAggregateId(),
+                        event.getEventType(), event.getPayload(), event.getCreatedAt()));
+            } catch (Exception e) {
+                int attempt = event.getAttempts() + 1;
+                outboxEventRepository.markFailed(event.getEventId(), truncate(e.toString()), LocalDateTime.now());
+                failedCounter.increment();
+                failedAggregates.add(aggregate);
+                if (attempt >= maxAttempts) {
+                    logger.error("Giving up on outbox event {} ({}) after {} attempt(s): {}",
+                            event.getEventId(), event.getEventType(), attempt, e.getMessage());
+                    deadCounter.increment();
+                } else {
+                    logger.warn("Failed to publish outbox event {} ({}), attempt {}: {}",
+                            event.getEventId(), event.getEventType(), attempt, e.getMessage());
+                }
+                continue;
+            }
+            published.add(event.getEventId());
+            if (event.getCreatedAt() != null) {
+                deliveryLag.record(Duration.between(event.getCreatedAt(), now));
+            }
+        }
+        if (!published.isEmpty()) {
+            outboxEventRepository.markPublished(published, LocalDateTime.now());
+            publishedCounter.increment(published.size());
+            logger.debug("Published {} outbox event(s)", published.size());
+        }
+        return new BatchResult(events.size(), published.size());
+    }
+    
+    private static String truncate(String error) {
+        return error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+    
+    private record BatchResult(int locked, int published) {
+    }
+}
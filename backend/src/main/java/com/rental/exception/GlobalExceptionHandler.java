@@ -3,6 +3,7 @@ package com.rental.exception;
 import com.rental.dto.response.ApiResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -76,6 +77,47 @@ public class GlobalExceptionHandler {
                 .body(ApiResponse.<String>error(ex.getMessage()));
     }
     
+    @ExceptionHandler(ConcurrentUpdateException.class)
+    public ResponseEntity<ApiResponse<String>> handleConcurrentUpdateException(
+            ConcurrentUpdateException ex) {
+        logger.warn("Concurrent update conflict: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(ApiResponse.<String>error(ex.getMessage()));
+    }
+    
+    @ExceptionHandler(HoldExpiredException.class)
+    public ResponseEntity<ApiResponse<String>> handleHoldExpiredException(
+            HoldExpiredException ex) {
+        logger.warn("Reservation hold no longer active: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.GONE)
+                .body(ApiResponse.<String>error(ex.getMessage()));
+    }
+    
+    @ExceptionHandler(IdempotencyKeyMismatchException.class)
+    public ResponseEntity<ApiResponse<String>> handleIdempotencyKeyMismatchException(
+            IdempotencyKeyMismatchException ex) {
+        logger.warn("Idempotency key reused: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                .body(ApiResponse.<String>error(ex.getMessage()));
+    }
+    
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<ApiResponse<String>> handleTooManyRequestsException(
+            TooManyRequestsException ex) {
+        logger.warn("Request rejected: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ApiResponse.<String>error(ex.getMessage()));
+    }
+    
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ApiResponse<String>> handleIllegalArgumentException(
+            IllegalArgumentException ex) {
+        logger.warn("Invalid request: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(ApiResponse.<String>error(ex.getMessage()));
+    }
+    
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiResponse<String>> handleGenericException(Exception ex) {
         logger.error("Unexpected error occurred: {}", ex.getMessage(), ex);
@@ -0,0 +1,11 @@
+package com.rental.exception;
+
+public class HoldExpiredException extends RuntimeException {
+    public HoldExpiredException(String message) {
+        super(message);
+    }
+    
+    public HoldExpiredException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,66 @@
+package com.rental.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rental.dto.response.ApiResponse;
+import com.rental.exception.TooManyRequestsException;
+import com.rental.service.AuthRateLimiter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Applies the per-IP limits of {@link AuthRateLimiter} to the public authentication endpoints.
+ * Runs ahead of the concurrency limiter and the security chain, so rejected requests are
+ * answered with 429 and a Retry-After header before they cost a permit, a body parse or a hash.
+ * The client IP is the remote address; behind a reverse proxy set
+ * {@code server.forward-headers-strategy} so that it reflects X-Forwarded-For.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 5)
+public class AuthRateLimitFilter extends OncePerRequestFilter {
+
+    private final AuthRateLimiter rateLimiter;
+    private final ObjectMapper objectMapper;
+    private final Map<String, String> endpointsByPath;
+
+    public AuthRateLimitFilter(AuthRateLimiter rateLimiter, ObjectMapper objectMapper) {
+        this.rateLimiter = rateLimiter;
+        this.objectMapper = objectMapper;
+        this.endpointsByPath = rateLimiter.endpointsByPath();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !rateLimiter.isEnabled() || !"POST".equals(request.getMethod()) || endpoint(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        try {
+            rateLimiter.checkIp(endpoint(request), request.getRemoteAddr());
+        } catch (TooManyRequestsException e) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write(objectMapper.writeValueAsString(ApiResponse.error(e.getMessage())));
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private String endpoint(HttpServletRequest request) {
+        return endpointsByPath.get(request.getRequestURI().substring(request.getContextPath().length()));
+    }
+}
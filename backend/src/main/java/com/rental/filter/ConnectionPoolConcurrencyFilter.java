@@ -0,0 +1,88 @@
+package com.rental.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rental.dto.response.ApiResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps in-flight requests when running on virtual threads.
+ * Virtual threads make request threads practically free, so without a limit thousands of
+ * requests would queue inside HikariCP for a handful of connections and time out there.
+ * Permits are sized from the connection pool; a request that cannot get one within the
+ * acquire timeout is answered with 503 and a Retry-After header.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class ConnectionPoolConcurrencyFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConnectionPoolConcurrencyFilter.class);
+
+    private final Semaphore permits;
+    private final long acquireTimeoutMillis;
+    private final ObjectMapper objectMapper;
+
+    public ConnectionPoolConcurrencyFilter(ObjectMapper objectMapper,
+                                           @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+                                           @Value("${concurrency.limiter.permits-per-connection:4}") int permitsPerConnection,
+                                           @Value("${concurrency.limiter.acquire-timeout:PT2S}") Duration acquireTimeout) {
+        this.objectMapper = objectMapper;
+        int maxConcurrent = Math.max(1, poolSize * permitsPerConnection);
+        // Fair, so waiting requests are served in arrival order
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.acquireTimeoutMillis = acquireTimeout.toMillis();
+        logger.info("Virtual threads enabled: limiting to {} concurrent request(s) for a pool of {} connection(s)",
+                maxConcurrent, poolSize);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith(request.getContextPath() + "/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+
+        if (!acquired) {
+            logger.warn("Request rejected, server at capacity: {} {}", request.getMethod(), request.getRequestURI());
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write(objectMapper.writeValueAsString(
+                    ApiResponse.error("Server is busy, please retry shortly")));
+            return;
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.rental.filter;
 
-import com.rental.util.JwtUtil;
+import com.rental.util.VerifiedToken;
+import com.rental.util.VerifiedTokenCache;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.Cookie;
@@ -26,7 +27,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
 
     @Autowired
-    private JwtUtil jwtUtil;
+    private VerifiedTokenCache tokenCache;
 
     private static final String TOKEN_COOKIE_NAME = "authToken";
 
@@ -42,10 +43,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         if (token != null) {
             logger.debug("JWT token found in cookie for request: {}", requestPath);
             
-            if (jwtUtil.validateToken(token)) {
+            // Single verification per token; later requests with the same token hit the cache
+            VerifiedToken verified = tokenCache.verify(token);
+            if (verified != null) {
                 try {
-                    String email = jwtUtil.extractEmail(token);
-                    String roleName = jwtUtil.extractRoleName(token);
+                    String email = verified.getEmail();
+                    String roleName = verified.getRoleName();
                     
                     if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
                         List<SimpleGrantedAuthority> authorities = Collections.singletonList(
@@ -57,8 +60,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                         authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                         
                         SecurityContextHolder.getContext().setAuthentication(authentication);
-                        logger.debug("Authentication set for user: {} with role: {} for request: {}", 
-                                email, roleName, requestPath);
+                        if (logger.isDebugEnabled()) {
+                            logger.debug("Authentication set for user: {} with role: {} for request: {}", 
+                                    email, roleName, requestPath);
+                        }
                     }
                 } catch (Exception e) {
                     logger.error("Cannot set user authentication for request: {} - Error: {}", 
@@ -77,22 +82,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private String getTokenFromCookie(HttpServletRequest request) {
         Cookie[] cookies = request.getCookies();
         if (cookies != null) {
-            logger.debug("Found {} cookies in request: {}", cookies.length, 
-                    java.util.Arrays.stream(cookies)
-                            .map(c -> c.getName() + "=" + (c.getValue() != null && c.getValue().length() > 20 
-                                    ? c.getValue().substring(0, 20) + "..." : c.getValue()))
-                            .collect(java.util.stream.Collectors.joining(", ")));
             for (Cookie cookie : cookies) {
                 if (TOKEN_COOKIE_NAME.equals(cookie.getName())) {
-                    logger.debug("Found authToken cookie with path: {}, domain: {}", 
-                            cookie.getPath(), cookie.getDomain());
                     return cookie.getValue();
                 }
             }
-        } else {
-            logger.debug("No cookies found in request");
         }
         return null;
     }
 }
-
@@ -0,0 +1,155 @@
+package com.rental.filter;
+
+import com.rental.util.QueryCounter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.List;
+
+/**
+ * Counts the SQL statements of each request (see {@link QueryCounter}).
+ * The count is sent in the X-Query-Count header and recorded per endpoint in the
+ * http.server.requests.queries summary. Requests over the budget, or that repeat one
+ * statement from one call site often enough to look like an N+1, are logged with their
+ * statements grouped by call site.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+@ConditionalOnProperty(name = "sql.query-guard.enabled", havingValue = "true", matchIfMissing = true)
+public class QueryCountFilter extends OncePerRequestFilter {
+
+    public static final String QUERY_COUNT_HEADER = "X-Query-Count";
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryCountFilter.class);
+    private static final int LOGGED_STATEMENTS = 10;
+
+    private final MeterRegistry meterRegistry;
+    private final int budget;
+    private final int nPlusOneThreshold;
+
+    public QueryCountFilter(MeterRegistry meterRegistry,
+                            @Value("${sql.query-guard.budget:20}") int budget,
+                            @Value("${sql.query-guard.n-plus-one-threshold:10}") int nPlusOneThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.budget = budget;
+        this.nPlusOneThreshold = nPlusOneThreshold;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith(request.getContextPath() + "/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        try (QueryCounter.Scope queries = QueryCounter.start()) {
+            QueryCountResponse countingResponse = new QueryCountResponse(response, queries);
+            try {
+                filterChain.doFilter(request, countingResponse);
+            } finally {
+                countingResponse.setQueryCountHeader();
+                record(request, queries);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, QueryCounter.Scope queries) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        DistributionSummary.builder("http.server.requests.queries")
+                .description("SQL statements per request")
+                .baseUnit("statements")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(queries.getCount());
+
+        if (queries.getCount() > budget) {
+            logger.warn("{} {} executed {} SQL statement(s), over the budget of {}:\n{}",
+                    request.getMethod(), uri, queries.getCount(), budget, queries.describe(LOGGED_STATEMENTS));
+            return;
+        }
+        List<QueryCounter.StatementCount> repeated = queries.getRepeatedStatements(nPlusOneThreshold);
+        if (!repeated.isEmpty()) {
+            QueryCounter.StatementCount worst = repeated.get(0);
+            logger.warn("Possible N+1 in {} {}: statement executed {} times from {}: {}",
+                    request.getMethod(), uri, worst.count(), worst.callSite(), worst.shortSql());
+        }
+    }
+
+    /**
+     * Sets the header just before the response is committed, since headers cannot be added
+     * once the body has started. Statements run after that point still reach the metric.
+     */
+    private static final class QueryCountResponse extends HttpServletResponseWrapper {
+
+        private final QueryCounter.Scope queries;
+        private boolean headerSet;
+
+        private QueryCountResponse(HttpServletResponse response, QueryCounter.Scope queries) {
+            super(response);
+            this.queries = queries;
+        }
+
+        private void setQueryCountHeader() {
+            if (!headerSet && !isCommitted()) {
+                setHeader(QUERY_COUNT_HEADER, Integer.toString(queries.getCount()));
+            }
+            headerSet = true;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            setQueryCountHeader();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            setQueryCountHeader();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            setQueryCountHeader();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            setQueryCountHeader();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            setQueryCountHeader();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            setQueryCountHeader();
+            super.sendRedirect(location);
+        }
+    }
+}
@@ -20,9 +20,6 @@ public interface AppUserRepository extends JpaRepository<AppUser, Integer> {
     @Query("SELECT u FROM AppUser u LEFT JOIN FETCH u.role WHERE u.contactNumber = :contactNumber")
     Optional<AppUser> findByContactNumberWithRole(@Param("contactNumber") String contactNumber);
     
-    @Query("SELECT u FROM AppUser u LEFT JOIN FETCH u.role WHERE u.email = :emailOrMobile OR u.contactNumber = :emailOrMobile")
-    Optional<AppUser> findByEmailOrContactNumberWithRole(@Param("emailOrMobile") String emailOrMobile);
-    
     boolean existsByEmail(String email);
     
     boolean existsByContactNumber(String contactNumber);
@@ -6,11 +6,55 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface BookingItemRepository extends JpaRepository<BookingItem, Integer> {
     @Query("SELECT bi FROM BookingItem bi JOIN FETCH bi.variant v JOIN FETCH v.product JOIN FETCH v.size WHERE bi.booking.bookingId = :bookingId")
     List<BookingItem> findByBookingBookingId(@Param("bookingId") Integer bookingId);
+    
+    @Query("SELECT bi FROM BookingItem bi JOIN FETCH bi.variant v JOIN FETCH v.product JOIN FETCH v.size WHERE bi.booking.bookingId IN :bookingIds")
+    List<BookingItem> findByBookingBookingIdIn(@Param("bookingIds") Collection<Integer> bookingIds);
+    
+    /**
+     * Rental windows of a variant's dated RENT items that still matter on or after fromDate.
+     * A window ends on its rental end date unless the booking's RENT_OUT transaction for it
+     * says otherwise: a returned rental ends on its actual return date, so an early return
+     * frees the remaining days, and a rental still out after its due date has no end (null)
+     * until it is returned. Partly returned rentals keep all their units until fully returned.
+     */
+    @Query(value = "SELECT bi.rental_start AS \"rentalStart\", COALESCE(r.returned_on, bi.rental_end) AS \"rentalEnd\", " +
+           "bi.quantity AS \"quantity\" " +
+           "FROM rental_management.booking_item bi JOIN rental_management.booking b ON b.booking_id = bi.booking_id " +
+           "LEFT JOIN LATERAL (SELECT MAX(t.actual_return_date) AS returned_on " +
+           "    FROM rental_management.inventory_transaction t " +
+           "    WHERE t.booking_id = bi.booking_id AND t.variant_id = bi.variant_id " +
+           "    AND t.transaction_type = 'RENT_OUT' AND t.expected_return_date = bi.rental_end " +
+           "    AND t.status IS DISTINCT FROM 'CANCELLED' " +
+           "    HAVING BOOL_AND(t.actual_return_date IS NOT NULL)) r ON TRUE " +
+           "WHERE bi.variant_id = :variantId AND UPPER(b.booking_type) = 'RENT' " +
+           "AND bi.rental_start IS NOT NULL AND bi.rental_end >= :fromDate " +
+           "AND (b.status IS NULL OR b.status <> 'CANCELLED') " +
+           "UNION ALL " +
+           "SELECT bi.rental_start, NULL, bi.quantity " +
+           "FROM rental_management.booking_item bi JOIN rental_management.booking b ON b.booking_id = bi.booking_id " +
+           "WHERE bi.variant_id = :variantId AND UPPER(b.booking_type) = 'RENT' " +
+           "AND bi.rental_start IS NOT NULL AND bi.rental_end < :fromDate " +
+           "AND (b.status IS NULL OR b.status <> 'CANCELLED') " +
+           "AND EXISTS (SELECT 1 FROM rental_management.inventory_transaction t " +
+           "    WHERE t.booking_id = bi.booking_id AND t.variant_id = bi.variant_id " +
+           "    AND t.transaction_type = 'RENT_OUT' AND t.expected_return_date = bi.rental_end " +
+           "    AND t.actual_return_date IS NULL AND t.status = 'RESERVED')",
+           nativeQuery = true)
+    List<RentalWindow> findRentalWindows(@Param("variantId") Integer variantId, @Param("fromDate") LocalDate fromDate);
+    
+    interface RentalWindow {
+        LocalDate getRentalStart();
+        /** Last day of the window, inclusive; null for a rental still out past its due date. */
+        LocalDate getRentalEnd();
+        Integer getQuantity();
+    }
 }
 
@@ -1,7 +1,9 @@
 package com.rental.repository;
 
 import com.rental.entity.Booking;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -10,7 +12,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, Integer> {
+public interface BookingRepository extends JpaRepository<Booking, Integer>, BookingRepositoryCustom {
     @Query("SELECT DISTINCT b FROM Booking b JOIN FETCH b.customer WHERE b.customer.customerId = :customerId")
     List<Booking> findByCustomerCustomerId(@Param("customerId") Integer customerId);
     
@@ -23,8 +25,12 @@ public interface BookingRepository extends JpaRepository<Booking, Integer> {
     @Query("SELECT b FROM Booking b JOIN FETCH b.customer WHERE b.bookingId = :id")
     Optional<Booking> findByIdWithCustomer(@Param("id") Integer id);
     
-    @Query("SELECT DISTINCT b FROM Booking b JOIN FETCH b.customer")
-    List<Booking> findAllWithCustomer();
+    /**
+     * Locks a booking so returns against it are processed one at a time.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Booking b WHERE b.bookingId = :id")
+    Optional<Booking> findByIdForUpdate(@Param("id") Integer id);
 }
 
 
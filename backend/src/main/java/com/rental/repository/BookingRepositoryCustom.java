@@ -0,0 +1,15 @@
+package com.rental.repository;
+
+import com.rental.dto.request.BookingSearchCriteria;
+import com.rental.entity.Booking;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface BookingRepositoryCustom {
+    /**
+     * Keyset page of bookings ordered by booking date and ID, newest first.
+     * Pass null for afterBookingDate/afterBookingId to read the first page.
+     */
+    List<Booking> findPage(BookingSearchCriteria criteria, LocalDateTime afterBookingDate, Integer afterBookingId, int limit);
+}
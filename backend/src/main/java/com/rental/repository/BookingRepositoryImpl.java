@@ -0,0 +1,65 @@
+package com.rental.repository;
+
+import com.rental.dto.request.BookingSearchCriteria;
+import com.rental.entity.Booking;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BookingRepositoryImpl implements BookingRepositoryCustom {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public List<Booking> findPage(BookingSearchCriteria criteria, LocalDateTime afterBookingDate, Integer afterBookingId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Booking> query = cb.createQuery(Booking.class);
+        Root<Booking> booking = query.from(Booking.class);
+        booking.fetch("customer", JoinType.INNER);
+        
+        List<Predicate> predicates = new ArrayList<>();
+        if (criteria.getStatus() != null) {
+            predicates.add(cb.equal(booking.get("status"), criteria.getStatus()));
+        }
+        if (criteria.getBookingType() != null) {
+            predicates.add(cb.equal(booking.get("bookingType"), criteria.getBookingType()));
+        }
+        if (criteria.getCustomerId() != null) {
+            predicates.add(cb.equal(booking.get("customer").get("customerId"), criteria.getCustomerId()));
+        }
+        if (criteria.getFromDate() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(booking.<LocalDateTime>get("bookingDate"),
+                    criteria.getFromDate().atStartOfDay()));
+        }
+        if (criteria.getToDate() != null) {
+            predicates.add(cb.lessThan(booking.<LocalDateTime>get("bookingDate"),
+                    criteria.getToDate().plusDays(1).atStartOfDay()));
+        }
+        
+        // Keyset condition: strictly after the last row of the previous page in (bookingDate DESC, bookingId DESC) order
+        if (afterBookingDate != null && afterBookingId != null) {
+            predicates.add(cb.or(
+                    cb.lessThan(booking.<LocalDateTime>get("bookingDate"), afterBookingDate),
+                    cb.and(
+                            cb.equal(booking.get("bookingDate"), afterBookingDate),
+                            cb.lessThan(booking.<Integer>get("bookingId"), afterBookingId))));
+        }
+        
+        query.select(booking)
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(booking.get("bookingDate")), cb.desc(booking.get("bookingId")));
+        
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -16,6 +17,9 @@ public interface DamageRecordRepository extends JpaRepository<DamageRecord, Inte
     @Query("SELECT dr FROM DamageRecord dr JOIN FETCH dr.transaction WHERE dr.transaction.booking.bookingId = :bookingId")
     List<DamageRecord> findByTransactionBookingBookingId(@Param("bookingId") Integer bookingId);
     
+    @Query("SELECT dr FROM DamageRecord dr JOIN FETCH dr.transaction WHERE dr.transaction.booking.bookingId IN :bookingIds")
+    List<DamageRecord> findByTransactionBookingBookingIdIn(@Param("bookingIds") Collection<Integer> bookingIds);
+    
     @Query("SELECT dr FROM DamageRecord dr JOIN FETCH dr.transaction WHERE dr.transaction.transactionId IN :transactionIds")
     List<DamageRecord> findByTransactionTransactionIds(@Param("transactionIds") List<Integer> transactionIds);
 }
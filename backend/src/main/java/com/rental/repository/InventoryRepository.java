@@ -2,8 +2,14 @@ package com.rental.repository;
 
 import com.rental.entity.Inventory;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,6 +18,76 @@ public interface InventoryRepository extends JpaRepository<Inventory, Integer> {
     Optional<Inventory> findByVariantVariantId(Integer variantId);
     List<Inventory> findByAvailabilityStatus(String status);
     List<Inventory> findByAvailableQuantityGreaterThan(Integer quantity);
-}
+    
+    @Query("SELECT i FROM Inventory i WHERE i.variant.variantId IN :variantIds")
+    List<Inventory> findByVariantVariantIdIn(@Param("variantIds") Collection<Integer> variantIds);
+    
+    /**
+     * Locks the inventory row of a variant and returns its available quantity, so stock and
+     * date-range reservations for the same variant are checked one at a time. The quantity
+     * comes from the locking statement itself: a managed Inventory entity does not see
+     * {@link #reserveQuantity} or {@link #restoreQuantity} run earlier in the same transaction.
+     */
+    @Query(value = "SELECT available_quantity FROM rental_management.inventory WHERE variant_id = :variantId FOR UPDATE",
+            nativeQuery = true)
+    Optional<Integer> lockAvailableQuantity(@Param("variantId") Integer variantId);
+
+    /**
+     * Locks the inventory rows of several variants in variant ID order, the order single
+     * bookings lock them in, so a transaction placing many bookings cannot deadlock with them.
+     * Variants without an inventory row are skipped.
+     */
+    @Query(value = "SELECT variant_id FROM rental_management.inventory WHERE variant_id IN (:variantIds) " +
+            "ORDER BY variant_id FOR UPDATE",
+            nativeQuery = true)
+    List<Integer> lockVariants(@Param("variantIds") Collection<Integer> variantIds);
+
+    /**
+     * Atomically reserve stock for a booking item.
+     * The row is only updated when enough quantity is available, so concurrent bookings
+     * for the same variant can never oversell. The availability status is derived in the
+     * same statement from the booking type and the remaining quantity. The row version is
+     * bumped so entity-based writers that read the row earlier fail their optimistic check.
+     * Returns empty when the variant has no inventory row or not enough stock.
+     */
+    @Transactional
+    @Query(value = "UPDATE rental_management.inventory SET " +
+            "available_quantity = available_quantity - :quantity, " +
+            "availability_status = CASE WHEN available_quantity - :quantity = 0 " +
+            "    THEN CASE :bookingType WHEN 'RENT' THEN 'RENTED' WHEN 'SALE' THEN 'SOLD' ELSE 'UNAVAILABLE' END " +
+            "    ELSE CASE :bookingType WHEN 'RENT' THEN 'PARTIALLY_RENTED' WHEN 'SALE' THEN 'PARTIALLY_SOLD' ELSE availability_status END END, " +
+            "expected_restore_date = COALESCE(CAST(:restoreDate AS DATE), expected_restore_date), " +
+            "next_availability_date = COALESCE(CAST(:restoreDate AS DATE), next_availability_date), " +
+            "updated_at = CURRENT_TIMESTAMP, " +
+            "version = version + 1 " +
+            "WHERE variant_id = :variantId AND available_quantity >= :quantity " +
+            "RETURNING available_quantity AS \"availableQuantity\", availability_status AS \"availabilityStatus\"",
+            nativeQuery = true)
+    Optional<InventoryReservation> reserveQuantity(@Param("variantId") Integer variantId,
+                                                   @Param("quantity") Integer quantity,
+                                                   @Param("bookingType") String bookingType,
+                                                   @Param("restoreDate") LocalDate restoreDate);
 
+    /**
+     * Atomically give reserved stock back (expired holds, returned rentals).
+     * A fully rented/sold/unavailable row becomes partially available again.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE rental_management.inventory SET " +
+            "available_quantity = available_quantity + :quantity, " +
+            "availability_status = CASE availability_status " +
+            "    WHEN 'RENTED' THEN 'PARTIALLY_RENTED' WHEN 'SOLD' THEN 'PARTIALLY_SOLD' " +
+            "    WHEN 'UNAVAILABLE' THEN 'AVAILABLE' ELSE availability_status END, " +
+            "updated_at = CURRENT_TIMESTAMP, " +
+            "version = version + 1 " +
+            "WHERE variant_id = :variantId",
+            nativeQuery = true)
+    int restoreQuantity(@Param("variantId") Integer variantId, @Param("quantity") Integer quantity);
+
+    interface InventoryReservation {
+        Integer getAvailableQuantity();
+        String getAvailabilityStatus();
+    }
+}
 
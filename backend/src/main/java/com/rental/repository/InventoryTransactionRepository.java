@@ -6,16 +6,66 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface InventoryTransactionRepository extends JpaRepository<InventoryTransaction, Integer> {
-    @Query("SELECT it FROM InventoryTransaction it JOIN FETCH it.variant v JOIN FETCH v.product JOIN FETCH v.size WHERE it.booking.bookingId = :bookingId")
+    /**
+     * In ID order: returns cover a booking's rentals of a variant oldest first.
+     */
+    @Query("SELECT it FROM InventoryTransaction it JOIN FETCH it.variant v JOIN FETCH v.product JOIN FETCH v.size " +
+            "WHERE it.booking.bookingId = :bookingId ORDER BY it.transactionId")
     List<InventoryTransaction> findByBookingBookingId(@Param("bookingId") Integer bookingId);
     
+    @Query("SELECT it FROM InventoryTransaction it JOIN FETCH it.variant v JOIN FETCH v.product JOIN FETCH v.size WHERE it.booking.bookingId IN :bookingIds")
+    List<InventoryTransaction> findByBookingBookingIdIn(@Param("bookingIds") Collection<Integer> bookingIds);
+    
     @Query("SELECT it FROM InventoryTransaction it JOIN FETCH it.variant WHERE it.variant.variantId = :variantId")
     List<InventoryTransaction> findByVariantVariantId(@Param("variantId") Integer variantId);
     
     List<InventoryTransaction> findByTransactionType(String transactionType);
+    
+    /**
+     * One page of open rentals due before the cutoff, in (expected return date, ID) order.
+     * Pass the last row of the previous page as the "after" position, or nulls for the first page.
+     * Served by the partial index on open RENT_OUT transactions, so returned rentals are never read.
+     * A partly returned rental stays open, so its outstanding quantity subtracts the units already
+     * returned, allocated to the booking's rentals of the variant oldest first as ReturnService does.
+     */
+    @Query(value = "SELECT t.transaction_id AS \"transactionId\", t.variant_id AS \"variantId\", " +
+            "t.quantity AS \"quantity\", " +
+            "t.quantity - LEAST(GREATEST(COALESCE(r.returned, 0) - COALESCE(e.earlier, 0), 0), t.quantity) " +
+            "    AS \"outstandingQuantity\", " +
+            "t.expected_return_date AS \"expectedReturnDate\" " +
+            "FROM rental_management.inventory_transaction t " +
+            "LEFT JOIN LATERAL (SELECT SUM(x.quantity) AS returned FROM rental_management.inventory_transaction x " +
+            "    WHERE x.booking_id = t.booking_id AND x.variant_id = t.variant_id " +
+            "    AND x.transaction_type = 'RETURN') r ON TRUE " +
+            "LEFT JOIN LATERAL (SELECT SUM(p.quantity) AS earlier FROM rental_management.inventory_transaction p " +
+            "    WHERE p.booking_id = t.booking_id AND p.variant_id = t.variant_id " +
+            "    AND p.transaction_type = 'RENT_OUT' AND p.status IS DISTINCT FROM 'CANCELLED' " +
+            "    AND p.transaction_id < t.transaction_id) e ON TRUE " +
+            "WHERE t.transaction_type = 'RENT_OUT' AND t.actual_return_date IS NULL " +
+            "AND t.status IN ('ACTIVE', 'RESERVED') " +
+            "AND t.expected_return_date < :cutoff " +
+            "AND (CAST(:afterDate AS DATE) IS NULL " +
+            "     OR (t.expected_return_date, t.transaction_id) > (CAST(:afterDate AS DATE), :afterId)) " +
+            "ORDER BY t.expected_return_date, t.transaction_id " +
+            "LIMIT :limit",
+            nativeQuery = true)
+    List<OverdueRental> findOverdueRentals(@Param("cutoff") LocalDate cutoff,
+                                           @Param("afterDate") LocalDate afterDate,
+                                           @Param("afterId") Integer afterId,
+                                           @Param("limit") int limit);
+    
+    interface OverdueRental {
+        Integer getTransactionId();
+        Integer getVariantId();
+        Integer getQuantity();
+        Integer getOutstandingQuantity();
+        LocalDate getExpectedReturnDate();
+    }
 }
 
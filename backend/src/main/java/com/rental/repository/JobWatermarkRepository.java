@@ -0,0 +1,28 @@
+package com.rental.repository;
+
+import com.rental.entity.JobWatermark;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface JobWatermarkRepository extends JpaRepository<JobWatermark, String> {
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT w FROM JobWatermark w WHERE w.jobName = :jobName")
+    Optional<JobWatermark> findByIdForUpdate(@Param("jobName") String jobName);
+    
+    /**
+     * Creates the watermark row of a job if it does not exist yet, so it can be locked.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO rental_management.job_watermark (job_name) VALUES (:jobName) ON CONFLICT (job_name) DO NOTHING",
+            nativeQuery = true)
+    int createIfAbsent(@Param("jobName") String jobName);
+}
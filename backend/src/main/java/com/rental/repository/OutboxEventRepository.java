@@ -0,0 +1,57 @@
+package com.rental.repository;
+
+import com.rental.entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    
+    /**
+     * Locks the oldest undelivered events that are due. Rows locked by another relay are
+     * skipped rather than waited for, so several instances can relay side by side.
+     * An event that failed is due again once the backoff after its last attempt has passed
+     * (doubling per attempt, capped); after maxAttempts it is dead-lettered and no longer
+     * read. Events behind a failed, still retried event of the same aggregate are held back.
+     */
+    @Query(value = "SELECT * FROM rental_management.outbox_event e " +
+            "WHERE e.published_at IS NULL AND e.attempts < :maxAttempts " +
+            "AND (e.last_attempt_at IS NULL OR e.last_attempt_at + " +
+            "     LEAST(:backoffSeconds * POWER(2, GREATEST(e.attempts - 1, 0)), :maxBackoffSeconds) * INTERVAL '1 second' " +
+            "     <= CAST(:now AS TIMESTAMP)) " +
+            "AND NOT EXISTS (SELECT 1 FROM rental_management.outbox_event p " +
+            "     WHERE p.published_at IS NULL AND p.attempts > 0 AND p.attempts < :maxAttempts " +
+            "     AND p.aggregate_type = e.aggregate_type AND p.aggregate_id = e.aggregate_id " +
+            "     AND p.event_id < e.event_id) " +
+            "ORDER BY e.event_id " +
+            "LIMIT :limit " +
+            "FOR UPDATE OF e SKIP LOCKED",
+            nativeQuery = true)
+    List<OutboxEvent> lockUnpublished(@Param("limit") int limit,
+                                      @Param("maxAttempts") int maxAttempts,
+                                      @Param("backoffSeconds") long backoffSeconds,
+                                      @Param("maxBackoffSeconds") long maxBackoffSeconds,
+                                      @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.publishedAt = :publishedAt, e.lastAttemptAt = :publishedAt, " +
+           "e.attempts = e.attempts + 1 WHERE e.eventId IN :eventIds")
+    int markPublished(@Param("eventIds") Collection<Long> eventIds, @Param("publishedAt") LocalDateTime publishedAt);
+    
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.attempts = e.attempts + 1, e.lastError = :error, e.lastAttemptAt = :attemptedAt " +
+           "WHERE e.eventId = :eventId")
+    int markFailed(@Param("eventId") Long eventId, @Param("error") String error,
+                   @Param("attemptedAt") LocalDateTime attemptedAt);
+    
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.publishedAt < :before")
+    int deletePublishedBefore(@Param("before") LocalDateTime before);
+}
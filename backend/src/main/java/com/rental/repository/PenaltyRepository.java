@@ -0,0 +1,9 @@
+package com.rental.repository;
+
+import com.rental.entity.Penalty;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PenaltyRepository extends JpaRepository<Penalty, Integer> {
+}
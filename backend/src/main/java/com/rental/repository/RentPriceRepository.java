@@ -7,14 +7,26 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface RentPriceRepository extends JpaRepository<RentPrice, Integer> {
     @Query("SELECT rp FROM RentPrice rp WHERE rp.variant.variantId = :variantId " +
            "AND (rp.effectiveTo IS NULL OR rp.effectiveTo >= :date) " +
-           "AND rp.effectiveFrom <= :date ORDER BY rp.effectiveFrom DESC")
-    Optional<RentPrice> findCurrentPrice(@Param("variantId") Integer variantId, @Param("date") LocalDate date);
+           "AND rp.effectiveFrom <= :date ORDER BY rp.effectiveFrom DESC, rp.rentPriceId DESC")
+    List<RentPrice> findCurrentPrices(@Param("variantId") Integer variantId, @Param("date") LocalDate date);
+    
+    /**
+     * Price in effect on the given date. When several ranges overlap, the one that started last wins.
+     */
+    default Optional<RentPrice> findCurrentPrice(Integer variantId, LocalDate date) {
+        return findCurrentPrices(variantId, date).stream().findFirst();
+    }
+    
+    List<RentPrice> findByVariantVariantIdOrderByRentPriceIdAsc(Integer variantId);
+    
+    List<RentPrice> findAllByOrderByRentPriceIdAsc();
 }
 
 
@@ -0,0 +1,53 @@
+package com.rental.repository;
+
+import com.rental.entity.ReservationHold;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ReservationHoldRepository extends JpaRepository<ReservationHold, Integer> {
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT h FROM ReservationHold h JOIN FETCH h.variant v JOIN FETCH v.product JOIN FETCH v.size WHERE h.holdId = :holdId")
+    Optional<ReservationHold> findByIdForUpdate(@Param("holdId") Integer holdId);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT h FROM ReservationHold h JOIN FETCH h.variant v JOIN FETCH v.product JOIN FETCH v.size " +
+           "WHERE h.holdId IN :holdIds ORDER BY h.holdId")
+    List<ReservationHold> findAllByIdForUpdate(@Param("holdIds") Collection<Integer> holdIds);
+    
+    /**
+     * Dated holds of a variant that still take calendar capacity (same shape as booked rental windows).
+     */
+    @Query("SELECT h.rentalStart AS rentalStart, h.rentalEnd AS rentalEnd, h.quantity AS quantity " +
+           "FROM ReservationHold h " +
+           "WHERE h.variant.variantId = :variantId AND h.status = 'ACTIVE' AND h.expiresAt > :now " +
+           "AND h.rentalStart IS NOT NULL AND h.rentalEnd >= :fromDate")
+    List<BookingItemRepository.RentalWindow> findActiveWindows(@Param("variantId") Integer variantId,
+                                                               @Param("fromDate") LocalDate fromDate,
+                                                               @Param("now") LocalDateTime now);
+    
+    @Query("SELECT h.holdId AS holdId, h.expiresAt AS expiresAt FROM ReservationHold h WHERE h.status = 'ACTIVE'")
+    List<HoldDeadline> findActiveDeadlines();
+    
+    /**
+     * Active holds past their deadline, served by the partial index on active expiries.
+     */
+    @Query("SELECT h.holdId FROM ReservationHold h WHERE h.status = 'ACTIVE' AND h.expiresAt < :now ORDER BY h.holdId")
+    List<Integer> findExpiredActiveIds(@Param("now") LocalDateTime now);
+    
+    interface HoldDeadline {
+        Integer getHoldId();
+        LocalDateTime getExpiresAt();
+    }
+}
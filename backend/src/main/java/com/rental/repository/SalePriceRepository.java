@@ -7,14 +7,26 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface SalePriceRepository extends JpaRepository<SalePrice, Integer> {
     @Query("SELECT sp FROM SalePrice sp WHERE sp.variant.variantId = :variantId " +
            "AND (sp.effectiveTo IS NULL OR sp.effectiveTo >= :date) " +
-           "AND sp.effectiveFrom <= :date ORDER BY sp.effectiveFrom DESC")
-    Optional<SalePrice> findCurrentPrice(@Param("variantId") Integer variantId, @Param("date") LocalDate date);
+           "AND sp.effectiveFrom <= :date ORDER BY sp.effectiveFrom DESC, sp.salePriceId DESC")
+    List<SalePrice> findCurrentPrices(@Param("variantId") Integer variantId, @Param("date") LocalDate date);
+    
+    /**
+     * Price in effect on the given date. When several ranges overlap, the one that started last wins.
+     */
+    default Optional<SalePrice> findCurrentPrice(Integer variantId, LocalDate date) {
+        return findCurrentPrices(variantId, date).stream().findFirst();
+    }
+    
+    List<SalePrice> findByVariantVariantIdOrderBySalePriceIdAsc(Integer variantId);
+    
+    List<SalePrice> findAllByOrderBySalePriceIdAsc();
 }
 
 
@@ -0,0 +1,116 @@
+package com.rental.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.rental.config.RateLimitProperties;
+import com.rental.exception.TooManyRequestsException;
+import com.rental.util.TokenBucket;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token-bucket rate limits for the public authentication endpoints (see {@link RateLimitProperties}).
+ * Client IPs are checked by the {@code AuthRateLimitFilter} before the request body is read;
+ * account identifiers are checked by the controller before {@link AuthService} spends a
+ * BCrypt hash or a query. Buckets live in bounded caches and are dropped once they would
+ * have refilled completely, since a full bucket is the same as a new one.
+ */
+@Component
+public class AuthRateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthRateLimiter.class);
+    private static final String KEY_IP = "ip";
+    private static final String KEY_ACCOUNT = "account";
+
+    private final RateLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+    // endpoint name -> key type -> buckets
+    private final Map<String, Map<String, Limiter>> limiters = new HashMap<>();
+
+    public AuthRateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        properties.getEndpoints().forEach((name, endpoint) -> {
+            Map<String, Limiter> byKey = new HashMap<>();
+            if (endpoint.getIp() != null) {
+                byKey.put(KEY_IP, new Limiter(endpoint.getIp(), properties.getMaxKeys()));
+            }
+            if (endpoint.getAccount() != null) {
+                byKey.put(KEY_ACCOUNT, new Limiter(endpoint.getAccount(), properties.getMaxKeys()));
+            }
+            limiters.put(name, byKey);
+        });
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Endpoint names by path, for matching requests.
+     */
+    public Map<String, String> endpointsByPath() {
+        Map<String, String> byPath = new HashMap<>();
+        properties.getEndpoints().forEach((name, endpoint) -> byPath.put(endpoint.getPath(), name));
+        return byPath;
+    }
+
+    public void checkIp(String endpoint, String clientIp) {
+        check(endpoint, KEY_IP, clientIp);
+    }
+
+    /**
+     * Identifiers are compared case-insensitively so "A@x.com" and "a@x.com" share a bucket.
+     */
+    public void checkAccount(String endpoint, String identifier) {
+        if (identifier != null) {
+            check(endpoint, KEY_ACCOUNT, identifier.trim().toLowerCase(Locale.ROOT));
+        }
+    }
+
+    private void check(String endpoint, String keyType, String key) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Limiter limiter = limiters.getOrDefault(endpoint, Map.of()).get(keyType);
+        if (limiter == null) {
+            return;
+        }
+        long waitNanos = limiter.tryConsume(key);
+        if (waitNanos > 0) {
+            meterRegistry.counter("rate_limit.rejected", "endpoint", endpoint, "key", keyType).increment();
+            long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+            // Debug only: under attack this fires for every rejected request; the counter shows the volume
+            logger.debug("Rate limit exceeded for {} by {} {}, retry after {}s", endpoint, keyType, key, retryAfterSeconds);
+            throw new TooManyRequestsException("Too many requests, please retry later", retryAfterSeconds);
+        }
+    }
+
+    private static final class Limiter {
+        private final RateLimitProperties.Limit limit;
+        private final Cache<String, TokenBucket> buckets;
+
+        private Limiter(RateLimitProperties.Limit limit, long maxKeys) {
+            this.limit = limit;
+            Duration refillTime = limit.getRefillPeriod().multipliedBy(limit.getCapacity());
+            this.buckets = Caffeine.newBuilder()
+                    .maximumSize(maxKeys)
+                    .expireAfterAccess(refillTime)
+                    .build();
+        }
+
+        private long tryConsume(String key) {
+            long now = System.nanoTime();
+            return buckets.get(key, k -> new TokenBucket(limit.getCapacity(), limit.getRefillPeriod(), now))
+                    .tryConsume(now);
+        }
+    }
+}
@@ -9,16 +9,21 @@ import com.rental.exception.AuthenticationException;
 import com.rental.repository.AppUserRepository;
 import com.rental.repository.RoleRepository;
 import com.rental.util.JwtUtil;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
 
 @Service
+@Timed(value = "rental.service", description = "Service method latency")
 @RequiredArgsConstructor
 public class AuthService {
 	
@@ -31,22 +36,53 @@ public class AuthService {
     private RoleRepository roleRepository;
 	
 	@Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
+	
+	@Autowired
+    private PlatformTransactionManager transactionManager;
 	
 	@Autowired
     private JwtUtil jwtUtil;
+	
+	@Autowired
+    private MeterRegistry meterRegistry;
+	
+	@Autowired
+    private RoleCache roleCache;
+	
+	@Autowired
+    private UnknownLoginCache unknownLogins;
     
     private static final String DEFAULT_ROLE = "USER";
     
-    @Transactional
+    private TransactionTemplate transactionTemplate() {
+        return new TransactionTemplate(transactionManager);
+    }
+    
+    /**
+     * The password is hashed on the hashing pool before the transaction starts,
+     * so no database connection is held for the duration of BCrypt.
+     */
     public LoginResponse register(RegisterRequest request) {
         logger.debug("Starting user registration for email: {}", request.getEmail());
         
-        // Check if user already exists
-        if (appUserRepository.existsByEmail(request.getEmail())) {
-            logger.warn("Registration failed: User with email {} already exists", request.getEmail());
-            throw new AuthenticationException("User with email " + request.getEmail() + " already exists");
+        // Cheap duplicate check before spending a hash on the request
+        checkEmailAvailable(request.getEmail());
+        String encodedPassword = passwordHashingService.encode(request.getPassword());
+        
+        return transactionTemplate().execute(status -> createUser(request, encodedPassword));
+    }
+    
+    private void checkEmailAvailable(String email) {
+        if (appUserRepository.existsByEmail(email)) {
+            logger.warn("Registration failed: User with email {} already exists", email);
+            throw new AuthenticationException("User with email " + email + " already exists");
         }
+    }
+    
+    private LoginResponse createUser(RegisterRequest request, String encodedPassword) {
+        // Re-checked inside the transaction in case of a concurrent registration
+        checkEmailAvailable(request.getEmail());
         
         // Get or create default role
         String roleName = request.getRoleName() != null && !request.getRoleName().isEmpty() 
@@ -54,32 +90,35 @@ public class AuthService {
                 : DEFAULT_ROLE;
         
         logger.debug("Looking up role: {}", roleName);
-        Role role = roleRepository.findByRoleName(roleName)
+        Role role = roleCache.find(roleName)
                 .orElseGet(() -> {
                     logger.info("Role {} not found, creating new role", roleName);
                     Role newRole = new Role();
                     newRole.setRoleName(roleName);
                     newRole.setDescription("Default user role");
-                    return roleRepository.save(newRole);
+                    Role savedRole = roleRepository.save(newRole);
+                    roleCache.addAfterCommit(savedRole);
+                    return savedRole;
                 });
         
-        // Create new user
+        // Create new user; the cached role is detached, so only a reference is attached
         AppUser user = new AppUser();
         user.setUserName(request.getUserName());
         user.setEmail(request.getEmail());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
+        user.setPassword(encodedPassword);
         user.setContactNumber(request.getContactNumber());
-        user.setRole(role);
+        user.setRole(roleRepository.getReferenceById(role.getRoleId()));
         user.setStatus(true);
         
         AppUser savedUser = appUserRepository.save(user);
+        unknownLogins.forgetAfterCommit(savedUser.getEmail(), savedUser.getContactNumber());
         logger.info("User created successfully: {} (ID: {})", savedUser.getEmail(), savedUser.getUserId());
         
         // Generate JWT token
         String token = jwtUtil.generateToken(
                 savedUser.getEmail(),
                 savedUser.getUserId(),
-                savedUser.getRole().getRoleName()
+                role.getRoleName()
         );
         logger.debug("JWT token generated for user: {}", savedUser.getEmail());
         
@@ -89,31 +128,48 @@ public class AuthService {
                 savedUser.getUserId(),
                 savedUser.getUserName(),
                 savedUser.getEmail(),
-                savedUser.getRole().getRoleName()
+                role.getRoleName()
         );
     }
     
-    @Transactional(readOnly = true)
+    /**
+     * Not transactional: the user (with role) is loaded by a single query whose connection
+     * is released before the password is verified on the hashing pool.
+     */
     public LoginResponse login(LoginRequest request) {
         String emailOrMobile = request.getEmailOrMobile();
         logger.debug("Attempting login for: {}", emailOrMobile);
         
-        // Find user by email or mobile number with role eagerly fetched
-        AppUser user = appUserRepository.findByEmailOrContactNumberWithRole(emailOrMobile)
-                .orElseThrow(() -> {
-                    logger.warn("Login failed: User not found with email/mobile: {}", emailOrMobile);
-                    return new AuthenticationException("Invalid email/mobile number or password");
-                });
+        // Identifiers that matched no user a moment ago are rejected without a query
+        if (unknownLogins.isUnknown(emailOrMobile)) {
+            logger.debug("Login failed: User recently not found with email/mobile: {}", emailOrMobile);
+            countLogin("unknown_user");
+            throw new AuthenticationException("Invalid email/mobile number or password");
+        }
+        
+        // Email or mobile is decided up front so the lookup uses the index on that column alone
+        long lookupGeneration = unknownLogins.generation();
+        Optional<AppUser> found = emailOrMobile.indexOf('@') >= 0
+                ? appUserRepository.findByEmailWithRole(emailOrMobile)
+                : appUserRepository.findByContactNumberWithRole(emailOrMobile);
+        AppUser user = found.orElseThrow(() -> {
+            logger.warn("Login failed: User not found with email/mobile: {}", emailOrMobile);
+            unknownLogins.markUnknown(emailOrMobile, lookupGeneration);
+            countLogin("unknown_user");
+            return new AuthenticationException("Invalid email/mobile number or password");
+        });
         
         // Check if user is active
         if (!user.getStatus()) {
             logger.warn("Login failed: User account is deactivated for: {}", emailOrMobile);
+            countLogin("deactivated");
             throw new AuthenticationException("User account is deactivated");
         }
         
         // Verify password
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+        if (!passwordHashingService.matches(request.getPassword(), user.getPassword())) {
             logger.warn("Login failed: Invalid password for: {}", emailOrMobile);
+            countLogin("bad_password");
             throw new AuthenticationException("Invalid email/mobile number or password");
         }
         
@@ -130,6 +186,7 @@ public class AuthService {
         
         logger.info("Login successful for user: {} (ID: {}), role: {}", 
                 user.getEmail(), user.getUserId(), user.getRole().getRoleName());
+        countLogin("success");
         
         return new LoginResponse(
                 token,
@@ -140,5 +197,8 @@ public class AuthService {
                 user.getRole().getRoleName()
         );
     }
+    
+    private void countLogin(String outcome) {
+        meterRegistry.counter("auth.login", "outcome", outcome).increment();
+    }
 }
-
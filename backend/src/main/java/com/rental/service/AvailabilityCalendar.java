@@ -0,0 +1,115 @@
+package com.rental.service;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable per-variant view of how many units are committed on each day.
+ * Reservations are stored as a step function: usage[i] units are committed from
+ * boundaries[i] (epoch day, inclusive) up to the next boundary. A range query is a
+ * binary search followed by a scan over the steps inside the range.
+ */
+public final class AvailabilityCalendar {
+
+    private final int capacity;
+    private final long[] boundaries;
+    private final int[] usage;
+
+    private AvailabilityCalendar(int capacity, long[] boundaries, int[] usage) {
+        this.capacity = capacity;
+        this.boundaries = boundaries;
+        this.usage = usage;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Highest number of units committed on any single day between from and to (both inclusive).
+     */
+    public int maxReserved(LocalDate from, LocalDate to) {
+        long fromDay = from.toEpochDay();
+        long toDay = to.toEpochDay();
+
+        int index = Arrays.binarySearch(boundaries, fromDay);
+        if (index < 0) {
+            // Step that started before fromDay, or -1 when the range begins before the first reservation
+            index = -index - 2;
+        }
+
+        int max = 0;
+        if (index < 0) {
+            index = 0;
+        } else {
+            max = usage[index];
+            index++;
+        }
+        while (index < boundaries.length && boundaries[index] <= toDay) {
+            max = Math.max(max, usage[index]);
+            index++;
+        }
+        return max;
+    }
+
+    public int freeUnits(LocalDate from, LocalDate to) {
+        return Math.max(0, capacity - maxReserved(from, to));
+    }
+
+    /**
+     * Units free on every day from the given date on.
+     */
+    public int freeUnitsFrom(LocalDate from) {
+        return freeUnits(from, LocalDate.MAX);
+    }
+
+    public static Builder builder(int capacity) {
+        return new Builder(capacity);
+    }
+
+    public static final class Builder {
+
+        private final int capacity;
+        private final TreeMap<Long, Integer> deltas = new TreeMap<>();
+
+        private Builder(int capacity) {
+            this.capacity = capacity;
+        }
+
+        public Builder reserve(LocalDate start, LocalDate end, int quantity) {
+            if (start == null || end == null || quantity <= 0 || end.isBefore(start)) {
+                return this;
+            }
+            deltas.merge(start.toEpochDay(), quantity, Integer::sum);
+            deltas.merge(end.toEpochDay() + 1, -quantity, Integer::sum);
+            return this;
+        }
+
+        /**
+         * Open-ended usage from start on, for stock that leaves the shelf for good.
+         */
+        public Builder reserveFrom(LocalDate start, int quantity) {
+            if (start == null || quantity <= 0) {
+                return this;
+            }
+            deltas.merge(start.toEpochDay(), quantity, Integer::sum);
+            return this;
+        }
+
+        public AvailabilityCalendar build() {
+            long[] boundaries = new long[deltas.size()];
+            int[] usage = new int[deltas.size()];
+            int running = 0;
+            int i = 0;
+            for (Map.Entry<Long, Integer> delta : deltas.entrySet()) {
+                running += delta.getValue();
+                boundaries[i] = delta.getKey();
+                usage[i] = running;
+                i++;
+            }
+            return new AvailabilityCalendar(capacity, boundaries, usage);
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package com.rental.service;
+
+import com.rental.dto.response.AvailabilityResponse;
+import com.rental.entity.BookingItem;
+import com.rental.entity.Inventory;
+import com.rental.entity.ProductVariant;
+import com.rental.exception.InsufficientInventoryException;
+import com.rental.exception.ResourceNotFoundException;
+import com.rental.repository.BookingItemRepository;
+import com.rental.repository.InventoryRepository;
+import com.rental.repository.ReservationHoldRepository;
+import com.rental.util.StripedGenerations;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Date-range availability for rentals.
+ * Each variant's dated RENT booking items and active reservation holds are kept in memory as an {@link AvailabilityCalendar},
+ * with overdue rentals still out kept busy until returned and early returns freeing their remaining days,
+ * so "how many units are free between D1 and D2" is answered without touching the database.
+ * Calendars are built lazily and dropped after any committed change to the variant or once
+ * the day they were built on is over. Each drop bumps the generation of the variant's stripe;
+ * a calendar whose load overlapped a drop is returned but not stored, so one built from
+ * pre-commit data never outlives the change.
+ */
+@Service
+@Timed(value = "rental.service", description = "Service method latency")
+public class AvailabilityService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AvailabilityService.class);
+
+    private final Map<Integer, CachedCalendar> calendars = new ConcurrentHashMap<>();
+    // Invalidation counts by variant ID stripe; calendars are stored and dropped while holding the stripe
+    private final StripedGenerations generations = new StripedGenerations(256);
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private BookingItemRepository bookingItemRepository;
+
+    @Autowired
+    private ReservationHoldRepository reservationHoldRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Transactional(readOnly = true)
+    public AvailabilityResponse getAvailability(Integer variantId, LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        CachedCalendar cached = calendars.get(variantId);
+        // A rental due yesterday that is still out now runs open-ended, so calendars last one day
+        AvailabilityCalendar calendar = cached != null && cached.builtOn().equals(LocalDate.now())
+                ? cached.calendar() : loadCalendar(variantId);
+
+        int reserved = calendar.maxReserved(from, to);
+        return new AvailabilityResponse(variantId, from, to, calendar.getCapacity(), reserved,
+                Math.max(0, calendar.getCapacity() - reserved));
+    }
+
+    /**
+     * Reserve units of a variant for one booking inside the caller's transaction: stockQuantity
+     * units taken off the shelf (sales and undated rentals) plus the rental windows of the
+     * dated items. The inventory row is locked first and the calendar is rebuilt from the
+     * database, so the check cannot race with another reservation for the same variant.
+     * Each window is checked against the stored bookings plus the windows before it, so the
+     * items do not need to be persisted first. The caller takes the stock off the inventory row
+     * afterwards, in the same transaction.
+     */
+    @Transactional
+    public void reserve(ProductVariant variant, int stockQuantity, List<BookingItem> datedItems) {
+        reserveWindows(variant, stockQuantity, datedItems.stream()
+                .map(item -> new Window(item.getRentalStart(), item.getRentalEnd(), item.getQuantity()))
+                .toList());
+    }
+
+    /**
+     * Reserve units of a variant for a single rental window (reservation holds).
+     */
+    @Transactional
+    public void reserveDateRange(ProductVariant variant, int quantity, LocalDate start, LocalDate end) {
+        reserveWindows(variant, 0, List.of(new Window(start, end, quantity)));
+    }
+
+    /**
+     * Check that quantity units can leave the shelf (undated holds) without taking capacity
+     * promised to dated rentals. The caller takes the stock off the inventory row afterwards.
+     */
+    @Transactional
+    public void reserveStock(ProductVariant variant, int quantity) {
+        reserveWindows(variant, quantity, List.of());
+    }
+
+    /**
+     * Takes the same row lock as a reservation, for callers that move capacity between
+     * holds and bookings and must not be observed half-way by a concurrent check.
+     */
+    @Transactional
+    public void lockVariant(Integer variantId) {
+        lockAvailableQuantity(variantId);
+        invalidateAfterCommit(variantId);
+    }
+
+    /**
+     * Locks the inventory rows of several variants up front, in variant ID order, for callers
+     * that place many bookings in one transaction (bulk import).
+     */
+    @Transactional
+    public void lockVariants(Collection<Integer> variantIds) {
+        if (!variantIds.isEmpty()) {
+            inventoryRepository.lockVariants(variantIds);
+        }
+    }
+
+    private void reserveWindows(ProductVariant variant, int stockQuantity, List<Window> windows) {
+        windows.forEach(window -> validateRange(window.start(), window.end()));
+        Integer variantId = variant.getVariantId();
+        int capacity = lockAvailableQuantity(variantId);
+
+        AvailabilityCalendar.Builder builder = calendarBuilder(variantId, capacity);
+        AvailabilityCalendar calendar = builder.build();
+        if (stockQuantity > 0) {
+            // Stock on hand is also the capacity of every future day, so a sale or an undated
+            // rental must fit under the busiest day of the dated rentals still to come
+            LocalDate today = LocalDate.now();
+            int free = calendar.freeUnitsFrom(today);
+            if (free < stockQuantity) {
+                logger.warn("Insufficient inventory for variant ID: {}. Free after dated rentals: {}, Requested: {}",
+                        variantId, free, stockQuantity);
+                meterRegistry.counter("inventory.insufficient", "check", "stock").increment();
+                throw new InsufficientInventoryException(
+                        String.format("Insufficient inventory for product '%s' (Size: %s). Available: %d, Requested: %d",
+                                variant.getProduct().getProductName(),
+                                variant.getSize().getSizeCode(),
+                                free, stockQuantity));
+            }
+            calendar = builder.reserveFrom(today, stockQuantity).build();
+        }
+        for (Window window : windows) {
+            int free = calendar.freeUnits(window.start(), window.end());
+            if (free < window.quantity()) {
+                logger.warn("Insufficient availability for variant ID: {} between {} and {}. Free: {}, Requested: {}",
+                        variantId, window.start(), window.end(), free, window.quantity());
+                meterRegistry.counter("inventory.insufficient", "check", "calendar").increment();
+                throw new InsufficientInventoryException(
+                        String.format("Insufficient availability for product '%s' (Size: %s) from %s to %s. Available: %d, Requested: %d",
+                                variant.getProduct().getProductName(),
+                                variant.getSize().getSizeCode(),
+                                window.start(), window.end(), free, window.quantity()));
+            }
+            calendar = builder.reserve(window.start(), window.end(), window.quantity()).build();
+            if (logger.isDebugEnabled()) {
+                logger.debug("Reserved {} unit(s) of variant ID: {} from {} to {}",
+                        window.quantity(), variantId, window.start(), window.end());
+            }
+        }
+
+        invalidateAfterCommit(variantId);
+    }
+
+    private int lockAvailableQuantity(Integer variantId) {
+        return inventoryRepository.lockAvailableQuantity(variantId)
+                .orElseThrow(() -> {
+                    logger.warn("Inventory not found for variant ID: {}", variantId);
+                    return new ResourceNotFoundException("Inventory not found for variant ID: " + variantId);
+                });
+    }
+
+    /**
+     * Drops the cached calendar of a variant once the current transaction commits.
+     */
+    public void invalidateAfterCommit(Integer variantId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate(variantId);
+                }
+            });
+        } else {
+            invalidate(variantId);
+        }
+    }
+
+    private void invalidate(Integer variantId) {
+        generations.invalidate(variantId, () -> calendars.remove(variantId));
+    }
+
+    /**
+     * Builds a calendar and caches it unless the variant was invalidated while it was loading.
+     */
+    private AvailabilityCalendar loadCalendar(Integer variantId) {
+        long startGeneration = generations.current(variantId);
+        LocalDate today = LocalDate.now();
+        Inventory inventory = inventoryRepository.findByVariantVariantId(variantId)
+                .orElseThrow(() -> {
+                    logger.warn("Inventory not found for variant ID: {}", variantId);
+                    return new ResourceNotFoundException("Inventory not found for variant ID: " + variantId);
+                });
+        AvailabilityCalendar calendar = calendarBuilder(variantId, inventory.getAvailableQuantity()).build();
+        generations.runIfCurrent(variantId, startGeneration,
+                () -> calendars.put(variantId, new CachedCalendar(calendar, today)));
+        return calendar;
+    }
+
+    private AvailabilityCalendar.Builder calendarBuilder(Integer variantId, int capacity) {
+        LocalDate today = LocalDate.now();
+        List<BookingItemRepository.RentalWindow> windows = bookingItemRepository.findRentalWindows(variantId, today);
+        // Active dated holds take capacity exactly like booked rentals
+        List<BookingItemRepository.RentalWindow> holds =
+                reservationHoldRepository.findActiveWindows(variantId, today, LocalDateTime.now());
+
+        AvailabilityCalendar.Builder builder = AvailabilityCalendar.builder(capacity);
+        for (BookingItemRepository.RentalWindow window : windows) {
+            if (window.getRentalEnd() == null) {
+                // Overdue and still out: the units are busy until they come back
+                builder.reserveFrom(window.getRentalStart(), window.getQuantity());
+            } else {
+                builder.reserve(window.getRentalStart(), window.getRentalEnd(), window.getQuantity());
+            }
+        }
+        for (BookingItemRepository.RentalWindow hold : holds) {
+            builder.reserve(hold.getRentalStart(), hold.getRentalEnd(), hold.getQuantity());
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("Loaded availability calendar for variant ID: {} with {} rental window(s) and {} hold(s)",
+                    variantId, windows.size(), holds.size());
+        }
+        return builder;
+    }
+
+    private record CachedCalendar(AvailabilityCalendar calendar, LocalDate builtOn) {
+    }
+
+    private record Window(LocalDate start, LocalDate end, int quantity) {
+    }
+
+    private void validateRange(LocalDate from, LocalDate to) {
+        if (from == null || to == null || to.isBefore(from)) {
+            throw new IllegalArgumentException("Rental end date must not be before the start date");
+        }
+    }
+}
@@ -0,0 +1,321 @@
+package com.rental.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.rental.dto.request.BookingRequest;
+import com.rental.dto.response.BulkOperationResponse;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk booking import.
+ * Uploads are read one record at a time with Jackson's streaming parser, so only the current
+ * chunk is held in memory. Each chunk is created in one transaction; if any booking in it
+ * fails, the chunk is rolled back and its bookings are retried one transaction each, so a
+ * single bad row costs only its own booking. A chunk locks the inventory rows of all its
+ * variants up front, in ID order, so it blocks (but never deadlocks) concurrent bookings of
+ * those variants until it commits; smaller chunks shorten that wait.
+ */
+@Service
+@Timed(value = "rental.service", description = "Service method latency")
+public class BookingImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingImportService.class);
+
+    /**
+     * CSV columns. Consecutive lines sharing a bookingRef form one booking with several items;
+     * lines without a bookingRef are bookings of their own.
+     */
+    public static final List<String> CSV_COLUMNS = List.of("bookingRef", "customerId", "bookingType", "status",
+            "variantId", "quantity", "unitPrice", "subtotal", "rentalStart", "rentalEnd");
+
+    private final CsvMapper csvMapper = new CsvMapper();
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private AvailabilityService availabilityService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Imports a JSON array of {@link BookingRequest} objects. An object that does not map to a
+     * booking is reported as a failed row; only malformed JSON stops the import.
+     */
+    public BulkOperationResponse importJson(InputStream input, int chunkSize) throws IOException {
+        ChunkedImport chunks = new ChunkedImport(chunkSize);
+        int row = 0;
+        try (JsonParser parser = objectMapper.getFactory().createParser(input)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Bulk booking upload must be a JSON array");
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) == JsonToken.START_OBJECT) {
+                row++;
+                // Read the object as a tree first: a value of the wrong type then fails only its own row
+                JsonNode node = objectMapper.readTree(parser);
+                BookingRequest request;
+                try {
+                    request = objectMapper.treeToValue(node, BookingRequest.class);
+                } catch (JsonProcessingException e) {
+                    chunks.reject(row, "Invalid booking: " + e.getOriginalMessage());
+                    continue;
+                }
+                chunks.add(row, request);
+            }
+            if (token != JsonToken.END_ARRAY) {
+                chunks.stop(row + 1, "Expected a booking object, import stopped");
+            }
+        } catch (JsonProcessingException e) {
+            // The stream cannot be resynchronised after malformed input: keep what was read so far.
+            // Failures inside an object leave row at that object; failures between objects point at the next one.
+            chunks.stop(chunks.isReported(row) ? row + 1 : row, "Malformed JSON, import stopped: " + e.getOriginalMessage());
+        }
+        return chunks.finish();
+    }
+
+    /**
+     * Imports CSV with a header line naming the {@link #CSV_COLUMNS} used.
+     */
+    public BulkOperationResponse importCsv(InputStream input, int chunkSize) throws IOException {
+        ChunkedImport chunks = new ChunkedImport(chunkSize);
+        CsvSchema schema = CsvSchema.emptySchema().withHeader();
+        int line = 0;
+        try (MappingIterator<Map<String, String>> rows = csvMapper.readerFor(Map.class).with(schema).readValues(input)) {
+            CsvBooking current = null;
+            while (rows.hasNextValue()) {
+                Map<String, String> values = rows.nextValue();
+                line++;
+                String bookingRef = blankToNull(values.get("bookingRef"));
+                if (current == null || bookingRef == null || !bookingRef.equals(current.bookingRef)) {
+                    if (current != null) {
+                        current.submit(chunks);
+                    }
+                    current = new CsvBooking(line, bookingRef);
+                }
+                current.addLine(values);
+            }
+            if (current != null) {
+                current.submit(chunks);
+            }
+        } catch (JsonProcessingException e) {
+            chunks.stop(line + 1, "Malformed CSV, import stopped: " + e.getOriginalMessage());
+        }
+        return chunks.finish();
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    /**
+     * One booking assembled from consecutive CSV lines.
+     */
+    private static final class CsvBooking {
+        private final int row;
+        private final String bookingRef;
+        private final BookingRequest request = new BookingRequest();
+        private String error;
+
+        private CsvBooking(int row, String bookingRef) {
+            this.row = row;
+            this.bookingRef = bookingRef;
+            request.setItems(new ArrayList<>());
+        }
+
+        private void addLine(Map<String, String> values) {
+            if (error != null) {
+                return;
+            }
+            try {
+                if (request.getItems().isEmpty()) {
+                    request.setCustomerId(toInteger(values, "customerId"));
+                    request.setBookingType(blankToNull(values.get("bookingType")));
+                    request.setStatus(blankToNull(values.get("status")));
+                }
+                BookingRequest.BookingItemRequest item = new BookingRequest.BookingItemRequest();
+                item.setVariantId(toInteger(values, "variantId"));
+                item.setQuantity(toInteger(values, "quantity"));
+                item.setUnitPrice(toDecimal(values, "unitPrice"));
+                item.setSubtotal(toDecimal(values, "subtotal"));
+                item.setRentalStart(toDate(values, "rentalStart"));
+                item.setRentalEnd(toDate(values, "rentalEnd"));
+                request.getItems().add(item);
+            } catch (IllegalArgumentException e) {
+                error = e.getMessage();
+            }
+        }
+
+        private void submit(ChunkedImport chunks) {
+            if (error != null) {
+                chunks.reject(row, error);
+            } else {
+                chunks.add(row, request);
+            }
+        }
+
+        private static Integer toInteger(Map<String, String> values, String column) {
+            String value = blankToNull(values.get(column));
+            try {
+                return value != null ? Integer.valueOf(value) : null;
+            } catch (NumberFormatException e) {
+                throw invalid(column, value);
+            }
+        }
+
+        private static BigDecimal toDecimal(Map<String, String> values, String column) {
+            String value = blankToNull(values.get(column));
+            try {
+                return value != null ? new BigDecimal(value) : null;
+            } catch (NumberFormatException e) {
+                throw invalid(column, value);
+            }
+        }
+
+        private static LocalDate toDate(Map<String, String> values, String column) {
+            String value = blankToNull(values.get(column));
+            try {
+                return value != null ? LocalDate.parse(value) : null;
+            } catch (RuntimeException e) {
+                throw invalid(column, value);
+            }
+        }
+
+        private static IllegalArgumentException invalid(String column, String value) {
+            return new IllegalArgumentException(String.format("Invalid value '%s' for column %s", value, column));
+        }
+    }
+
+    /**
+     * Collects validated bookings into chunks and writes each chunk in its own transaction.
+     */
+    private final class ChunkedImport {
+        private final int chunkSize;
+        private final List<PendingBooking> chunk = new ArrayList<>();
+        private final BulkOperationResponse report = new BulkOperationResponse();
+        private final TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        private int lastRow;
+
+        private ChunkedImport(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        private void add(int row, BookingRequest request) {
+            lastRow = row;
+            Set<ConstraintViolation<BookingRequest>> violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                reject(row, violations.stream()
+                        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+                return;
+            }
+            chunk.add(new PendingBooking(row, request));
+            if (chunk.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        private void reject(int row, String message) {
+            lastRow = row;
+            // Keep the report in upload order
+            flush();
+            report.addFailure(row, message);
+        }
+
+        private boolean isReported(int row) {
+            return row <= lastRow;
+        }
+
+        private void stop(int row, String message) {
+            logger.warn("Bulk booking import stopped at row {}: {}", row, message);
+            reject(row, message);
+        }
+
+        private BulkOperationResponse finish() {
+            flush();
+            logger.info("Bulk booking import finished: {} created, {} failed", report.getSucceeded(), report.getFailed());
+            return report;
+        }
+
+        private void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            List<PendingBooking> bookings = List.copyOf(chunk);
+            chunk.clear();
+            try {
+                List<Integer> bookingIds = transactionTemplate.execute(status -> {
+                    // The chunk holds its variants until it commits; taking them all first, in ID
+                    // order, keeps concurrent single bookings from deadlocking with it
+                    availabilityService.lockVariants(variantIds(bookings));
+                    return bookings.stream()
+                            .map(pending -> bookingService.placeBooking(pending.request).getBookingId())
+                            .collect(Collectors.toList());
+                });
+                for (int i = 0; i < bookings.size(); i++) {
+                    report.addSuccess(bookings.get(i).row, bookingIds.get(i));
+                }
+                logger.debug("Imported chunk of {} booking(s)", bookings.size());
+            } catch (RuntimeException e) {
+                logger.warn("Chunk of {} booking(s) failed ({}), retrying one by one", bookings.size(), e.getMessage());
+                bookings.forEach(this::importSingle);
+            }
+        }
+
+        private static Set<Integer> variantIds(List<PendingBooking> bookings) {
+            return bookings.stream()
+                    .filter(pending -> pending.request.getItems() != null)
+                    .flatMap(pending -> pending.request.getItems().stream())
+                    .map(BookingRequest.BookingItemRequest::getVariantId)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toCollection(TreeSet::new));
+        }
+
+        private void importSingle(PendingBooking pending) {
+            try {
+                Integer bookingId = transactionTemplate.execute(status ->
+                        bookingService.placeBooking(pending.request).getBookingId());
+                report.addSuccess(pending.row, bookingId);
+            } catch (RuntimeException e) {
+                report.addFailure(pending.row, e.getMessage());
+            }
+        }
+    }
+
+    private record PendingBooking(int row, BookingRequest request) {
+    }
+}
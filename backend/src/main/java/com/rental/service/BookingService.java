@@ -1,11 +1,16 @@
 package com.rental.service;
 
 import com.rental.dto.request.BookingRequest;
+import com.rental.dto.request.BookingSearchCriteria;
 import com.rental.dto.response.BookingResponse;
+import com.rental.dto.response.CursorPage;
 import com.rental.entity.*;
 import com.rental.exception.InsufficientInventoryException;
 import com.rental.exception.ResourceNotFoundException;
 import com.rental.repository.*;
+import com.rental.util.BookingCursor;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,9 +22,11 @@ import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "rental.service", description = "Service method latency")
 public class BookingService {
     
     private static final Logger logger = LoggerFactory.getLogger(BookingService.class);
@@ -45,14 +52,41 @@ public class BookingService {
     @Autowired
     private InventoryRepository inventoryRepository;
     
+    @Autowired
+    private AvailabilityService availabilityService;
+    
+    @Autowired
+    private ProductCatalogCache catalogCache;
+    
+    @Autowired
+    private OutboxService outboxService;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    /**
+     * Keyset-paginated booking list, newest first. The cursor is the value returned as
+     * nextCursor by the previous page; pass null for the first page.
+     */
     @Transactional(readOnly = true)
-    public List<BookingResponse> getAllBookings() {
-        logger.debug("Fetching all bookings with items and transactions");
-        List<Booking> bookings = bookingRepository.findAllWithCustomer();
+    public CursorPage<BookingResponse> getAllBookings(BookingSearchCriteria criteria, String cursor, int limit) {
+        logger.debug("Fetching bookings page with limit {} after cursor {}", limit, cursor);
+        BookingCursor after = cursor != null && !cursor.isBlank() ? BookingCursor.decode(cursor) : null;
+        
+        // Read one extra row to know whether another page exists
+        List<Booking> bookings = bookingRepository.findPage(criteria,
+                after != null ? after.getBookingDate() : null,
+                after != null ? after.getBookingId() : null,
+                limit + 1);
+        
+        String nextCursor = null;
+        if (bookings.size() > limit) {
+            bookings = bookings.subList(0, limit);
+            Booking last = bookings.get(limit - 1);
+            nextCursor = new BookingCursor(last.getBookingDate(), last.getBookingId()).encode();
+        }
         logger.info("Found {} bookings", bookings.size());
-        return bookings.stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        return new CursorPage<>(convertToResponses(bookings), nextCursor);
     }
     
     @Transactional(readOnly = true)
@@ -69,6 +103,24 @@ public class BookingService {
     
     @Transactional
     public BookingResponse createBooking(BookingRequest request) {
+        return convertToResponse(placeBooking(request));
+    }
+    
+    /**
+     * Creates a booking with its items, inventory reservations and transactions, without
+     * assembling a response. Joins the caller's transaction when there is one (bulk import).
+     */
+    @Transactional
+    public Booking placeBooking(BookingRequest request) {
+        return placeBooking(request, true);
+    }
+    
+    /**
+     * As {@link #placeBooking(BookingRequest)}; with reserveInventory false the items are taken
+     * to be covered already (converted reservation holds) and no availability check runs.
+     */
+    @Transactional
+    public Booking placeBooking(BookingRequest request, boolean reserveInventory) {
         logger.info("Creating new booking for customer ID: {}, type: {}, with {} items and {} transactions", 
                 request.getCustomerId(), 
                 request.getBookingType(),
@@ -101,12 +153,26 @@ public class BookingService {
         logger.info("Booking created successfully with ID: {}", savedBooking.getBookingId());
         
         // Create booking items and automatically update inventory
+        List<BookingItem> items = List.of();
         if (request.getItems() != null && !request.getItems().isEmpty()) {
+            // Load all variants in one query; the per-item lookups below hit the persistence context
+            variantRepository.findAllById(request.getItems().stream()
+                    .map(BookingRequest.BookingItemRequest::getVariantId)
+                    .collect(Collectors.toSet()));
+            
+            items = new ArrayList<>(request.getItems().size());
             for (BookingRequest.BookingItemRequest itemRequest : request.getItems()) {
-                BookingItem item = createBookingItem(savedBooking, itemRequest);
-                
-                // Automatically create inventory transaction and update inventory based on booking type
-                updateInventoryForBooking(savedBooking, item, request.getBookingType());
+                items.add(buildBookingItem(savedBooking, itemRequest));
+            }
+            
+            // Reserve everything first: the availability check must not count the items themselves,
+            // and keeping the native UPDATEs ahead of the inserts lets the inserts flush as batches
+            if (reserveInventory) {
+                reserveInventoryForBooking(items, request.getBookingType());
+            }
+            for (BookingItem item : items) {
+                saveBookingItem(item);
+                createAutoTransaction(savedBooking, item, request.getBookingType());
             }
         }
         
@@ -117,7 +183,8 @@ public class BookingService {
             }
         }
         
-        return convertToResponse(savedBooking);
+        outboxService.recordBooking(OutboxService.BOOKING_CREATED, savedBooking, items);
+        return savedBooking;
     }
     
     @Transactional
@@ -148,15 +215,20 @@ public class BookingService {
         }
         
         // Update items if provided
+        List<BookingItem> replacedItems = null;
         if (request.getItems() != null && !request.getItems().isEmpty()) {
             // Delete existing items
             List<BookingItem> existingItems = bookingItemRepository.findByBookingBookingId(id);
             bookingItemRepository.deleteAll(existingItems);
+            existingItems.forEach(existing -> availabilityService.invalidateAfterCommit(existing.getVariant().getVariantId()));
             
             // Create new items
             BigDecimal totalAmount = BigDecimal.ZERO;
+            replacedItems = new ArrayList<>(request.getItems().size());
             for (BookingRequest.BookingItemRequest itemRequest : request.getItems()) {
                 BookingItem item = createBookingItem(booking, itemRequest);
+                replacedItems.add(item);
+                availabilityService.invalidateAfterCommit(item.getVariant().getVariantId());
                 if (item.getSubtotal() != null) {
                     totalAmount = totalAmount.add(item.getSubtotal());
                 }
@@ -181,11 +253,16 @@ public class BookingService {
         
         Booking updatedBooking = bookingRepository.save(booking);
         logger.info("Booking updated successfully with ID: {}", updatedBooking.getBookingId());
+        outboxService.recordBooking(OutboxService.BOOKING_UPDATED, updatedBooking, replacedItems);
         
         return convertToResponse(updatedBooking);
     }
     
     private BookingItem createBookingItem(Booking booking, BookingRequest.BookingItemRequest request) {
+        return saveBookingItem(buildBookingItem(booking, request));
+    }
+    
+    private BookingItem buildBookingItem(Booking booking, BookingRequest.BookingItemRequest request) {
         // Validate variant exists
         ProductVariant variant = variantRepository.findById(request.getVariantId())
                 .orElseThrow(() -> {
@@ -209,8 +286,13 @@ public class BookingService {
         }
         item.setSubtotal(subtotal != null ? subtotal : BigDecimal.ZERO);
         
+        return item;
+    }
+    
+    private BookingItem saveBookingItem(BookingItem item) {
         BookingItem savedItem = bookingItemRepository.save(item);
-        logger.debug("Created booking item ID: {} for booking ID: {}", savedItem.getBookingItemId(), booking.getBookingId());
+        logger.debug("Created booking item ID: {} for booking ID: {}", 
+                savedItem.getBookingItemId(), item.getBooking().getBookingId());
         
         return savedItem;
     }
@@ -219,81 +301,108 @@ public class BookingService {
      * Automatically update inventory when booking is created
      * - For RENT: Reduce quantity, set status to RENTED if quantity becomes 0
      * - For SALE: Reduce quantity, set status to SOLD if quantity becomes 0
+     * - For RENT with rental start and end dates: Check the availability calendar for that
+     *   window only; stock is not reduced, so a rental next week does not block this week
+     * On-hand stock is also the calendar's capacity, so every variant is checked by the
+     * availability service under its inventory row lock: units taken off the shelf must not
+     * eat into capacity promised to future dated rentals. The decrement itself is still a
+     * conditional UPDATE. Variants are processed in ID order so concurrent bookings lock
+     * inventory rows in the same order.
      */
-    private void updateInventoryForBooking(Booking booking, BookingItem item, String bookingType) {
-        ProductVariant variant = item.getVariant();
-        Integer requestedQuantity = item.getQuantity();
+    private void reserveInventoryForBooking(List<BookingItem> items, String bookingType) {
+        String normalizedType = bookingType != null ? bookingType.toUpperCase() : "";
         
-        // Get or create inventory for this variant
-        Inventory inventory = inventoryRepository.findByVariantVariantId(variant.getVariantId())
-                .orElseThrow(() -> {
-                    logger.warn("Inventory not found for variant ID: {}", variant.getVariantId());
-                    return new ResourceNotFoundException("Inventory not found for variant ID: " + variant.getVariantId());
-                });
+        Map<Integer, List<BookingItem>> itemsByVariant = new TreeMap<>();
+        for (BookingItem item : items) {
+            itemsByVariant.computeIfAbsent(item.getVariant().getVariantId(), id -> new ArrayList<>()).add(item);
+        }
         
-        // Check if sufficient quantity is available
-        if (inventory.getAvailableQuantity() < requestedQuantity) {
-            logger.warn("Insufficient inventory for variant ID: {}. Available: {}, Requested: {}", 
-                    variant.getVariantId(), inventory.getAvailableQuantity(), requestedQuantity);
-            throw new InsufficientInventoryException(
-                    String.format("Insufficient inventory for product '%s' (Size: %s). Available: %d, Requested: %d",
-                            variant.getProduct().getProductName(),
-                            variant.getSize().getSizeCode(),
-                            inventory.getAvailableQuantity(),
-                            requestedQuantity));
-        }
-        
-        // Reduce available quantity
-        int newQuantity = inventory.getAvailableQuantity() - requestedQuantity;
-        inventory.setAvailableQuantity(newQuantity);
-        
-        // Update availability status based on booking type and new quantity
-        if (newQuantity == 0) {
-            if ("RENT".equalsIgnoreCase(bookingType)) {
-                inventory.setAvailabilityStatus("RENTED");
-            } else if ("SALE".equalsIgnoreCase(bookingType)) {
-                inventory.setAvailabilityStatus("SOLD");
-            } else {
-                inventory.setAvailabilityStatus("UNAVAILABLE");
+        for (List<BookingItem> variantItems : itemsByVariant.values()) {
+            List<BookingItem> datedRentals = new ArrayList<>();
+            List<BookingItem> stockItems = new ArrayList<>();
+            int stockQuantity = 0;
+            for (BookingItem item : variantItems) {
+                if (isDatedRental(item, normalizedType)) {
+                    datedRentals.add(item);
+                } else {
+                    stockItems.add(item);
+                    stockQuantity += item.getQuantity();
+                }
             }
-        } else {
-            // If quantity > 0, set status based on booking type for partial inventory
-            if ("RENT".equalsIgnoreCase(bookingType)) {
-                inventory.setAvailabilityStatus("PARTIALLY_RENTED");
-            } else if ("SALE".equalsIgnoreCase(bookingType)) {
-                inventory.setAvailabilityStatus("PARTIALLY_SOLD");
-            } else {
-                inventory.setAvailabilityStatus("AVAILABLE");
+            availabilityService.reserve(variantItems.get(0).getVariant(), stockQuantity, datedRentals);
+            for (BookingItem item : stockItems) {
+                reserveStock(item, normalizedType);
             }
         }
+    }
+    
+    private boolean isDatedRental(BookingItem item, String normalizedType) {
+        return "RENT".equals(normalizedType) && item.getRentalStart() != null && item.getRentalEnd() != null;
+    }
+    
+    private void reserveStock(BookingItem item, String normalizedType) {
+        ProductVariant variant = item.getVariant();
+        Integer requestedQuantity = item.getQuantity();
         
-        // Set expected restore date for RENT bookings
-        if ("RENT".equalsIgnoreCase(bookingType) && item.getRentalEnd() != null) {
-            inventory.setExpectedRestoreDate(item.getRentalEnd());
-            inventory.setNextAvailabilityDate(item.getRentalEnd());
-        }
+        LocalDate restoreDate = "RENT".equals(normalizedType) ? item.getRentalEnd() : null;
+        InventoryRepository.InventoryReservation reservation = inventoryRepository
+                .reserveQuantity(variant.getVariantId(), requestedQuantity, normalizedType, restoreDate)
+                .orElseThrow(() -> rejectReservation(variant, requestedQuantity));
+        availabilityService.invalidateAfterCommit(variant.getVariantId());
+        catalogCache.evictAfterCommit(variant.getProduct().getProductId());
+        outboxService.recordStockChange(variant.getVariantId(), -requestedQuantity,
+                reservation.getAvailableQuantity(), "BOOKING_ID:" + item.getBooking().getBookingId());
         
-        inventoryRepository.save(inventory);
         logger.info("Updated inventory for variant ID: {}. New quantity: {}, Status: {}", 
-                variant.getVariantId(), newQuantity, inventory.getAvailabilityStatus());
-        
-        // Automatically create inventory transaction
-        String transactionType = "RENT".equalsIgnoreCase(bookingType) ? "RENT_OUT" : "SALE";
+                variant.getVariantId(), reservation.getAvailableQuantity(), reservation.getAvailabilityStatus());
+    }
+    
+    /**
+     * Automatically create the inventory transaction for a reserved booking item.
+     */
+    private void createAutoTransaction(Booking booking, BookingItem item, String bookingType) {
+        String normalizedType = bookingType != null ? bookingType.toUpperCase() : "";
+        String transactionType = "RENT".equals(normalizedType) ? "RENT_OUT" : "SALE";
         InventoryTransaction transaction = new InventoryTransaction();
         transaction.setBooking(booking);
-        transaction.setVariant(variant);
+        transaction.setVariant(item.getVariant());
         transaction.setTransactionType(transactionType);
-        transaction.setQuantity(requestedQuantity);
-        transaction.setStatus("ACTIVE");
+        transaction.setQuantity(item.getQuantity());
+        // RESERVED marks dated rentals, which hold calendar capacity instead of on-hand stock
+        transaction.setStatus(isDatedRental(item, normalizedType) ? "RESERVED" : "ACTIVE");
         transaction.setNotes(String.format("Auto-generated transaction for booking ID: %d", booking.getBookingId()));
         
-        if ("RENT".equalsIgnoreCase(bookingType) && item.getRentalEnd() != null) {
+        if ("RENT".equals(normalizedType) && item.getRentalEnd() != null) {
             transaction.setExpectedReturnDate(item.getRentalEnd());
         }
         
         transactionRepository.save(transaction);
-        logger.debug("Created automatic inventory transaction for booking ID: {}, variant ID: {}, type: {}", 
-                booking.getBookingId(), variant.getVariantId(), transactionType);
+        if (logger.isDebugEnabled()) {
+            logger.debug("Created automatic inventory transaction for booking ID: {}, variant ID: {}, type: {}", 
+                    booking.getBookingId(), item.getVariant().getVariantId(), transactionType);
+        }
+    }
+    
+    /**
+     * Builds the error for a reservation that matched no row. Only runs on the failure path,
+     * so the extra read does not slow down successful bookings.
+     */
+    private RuntimeException rejectReservation(ProductVariant variant, Integer requestedQuantity) {
+        Inventory inventory = inventoryRepository.findByVariantVariantId(variant.getVariantId()).orElse(null);
+        if (inventory == null) {
+            logger.warn("Inventory not found for variant ID: {}", variant.getVariantId());
+            return new ResourceNotFoundException("Inventory not found for variant ID: " + variant.getVariantId());
+        }
+        
+        logger.warn("Insufficient inventory for variant ID: {}. Available: {}, Requested: {}", 
+                variant.getVariantId(), inventory.getAvailableQuantity(), requestedQuantity);
+        meterRegistry.counter("inventory.insufficient", "check", "stock").increment();
+        return new InsufficientInventoryException(
+                String.format("Insufficient inventory for product '%s' (Size: %s). Available: %d, Requested: %d",
+                        variant.getProduct().getProductName(),
+                        variant.getSize().getSizeCode(),
+                        inventory.getAvailableQuantity(),
+                        requestedQuantity));
     }
     
     private InventoryTransaction createInventoryTransaction(Booking booking, BookingRequest.InventoryTransactionRequest request) {
@@ -427,6 +536,45 @@ public class BookingService {
     }
     
     private BookingResponse convertToResponse(Booking booking) {
+        return convertToResponses(List.of(booking)).get(0);
+    }
+    
+    /**
+     * Builds responses for a set of bookings with a fixed number of queries:
+     * one IN query each for items, transactions and damage records, stitched together in memory.
+     */
+    private List<BookingResponse> convertToResponses(List<Booking> bookings) {
+        if (bookings.isEmpty()) {
+            return new ArrayList<>();
+        }
+        
+        List<Integer> bookingIds = bookings.stream()
+                .map(Booking::getBookingId)
+                .collect(Collectors.toList());
+        
+        Map<Integer, List<BookingItem>> itemsByBooking = bookingItemRepository.findByBookingBookingIdIn(bookingIds).stream()
+                .collect(Collectors.groupingBy(item -> item.getBooking().getBookingId()));
+        
+        Map<Integer, List<InventoryTransaction>> transactionsByBooking = transactionRepository.findByBookingBookingIdIn(bookingIds).stream()
+                .collect(Collectors.groupingBy(transaction -> transaction.getBooking().getBookingId()));
+        
+        // Group damage records by transaction ID for efficient lookup
+        Map<Integer, List<DamageRecord>> damageRecordsByTransaction = damageRecordRepository.findByTransactionBookingBookingIdIn(bookingIds).stream()
+                .collect(Collectors.groupingBy(dr -> dr.getTransaction().getTransactionId()));
+        
+        List<BookingResponse> responses = new ArrayList<>(bookings.size());
+        for (Booking booking : bookings) {
+            responses.add(buildResponse(booking,
+                    itemsByBooking.getOrDefault(booking.getBookingId(), List.of()),
+                    transactionsByBooking.getOrDefault(booking.getBookingId(), List.of()),
+                    damageRecordsByTransaction));
+        }
+        return responses;
+    }
+    
+    private BookingResponse buildResponse(Booking booking, List<BookingItem> items,
+                                          List<InventoryTransaction> transactions,
+                                          Map<Integer, List<DamageRecord>> damageRecordsByTransaction) {
         BookingResponse response = new BookingResponse();
         response.setBookingId(booking.getBookingId());
         response.setCustomerId(booking.getCustomer().getCustomerId());
@@ -440,8 +588,6 @@ public class BookingService {
         response.setUpdatedBy(booking.getUpdatedBy());
         response.setUpdatedAt(booking.getUpdatedAt());
         
-        // Load booking items
-        List<BookingItem> items = bookingItemRepository.findByBookingBookingId(booking.getBookingId());
         List<BookingResponse.BookingItemResponse> itemResponses = new ArrayList<>();
         
         for (BookingItem item : items) {
@@ -461,23 +607,8 @@ public class BookingService {
         
         response.setItems(itemResponses);
         
-        // Load inventory transactions with damage records
-        List<InventoryTransaction> transactions = transactionRepository.findByBookingBookingId(booking.getBookingId());
         List<BookingResponse.InventoryTransactionResponse> transactionResponses = new ArrayList<>();
         
-        // Fetch all damage records for all transactions in one query (optimization)
-        List<Integer> transactionIds = transactions.stream()
-                .map(InventoryTransaction::getTransactionId)
-                .collect(Collectors.toList());
-        
-        List<DamageRecord> allDamageRecords = transactionIds.isEmpty() 
-                ? new ArrayList<>() 
-                : damageRecordRepository.findByTransactionTransactionIds(transactionIds);
-        
-        // Group damage records by transaction ID for efficient lookup
-        Map<Integer, List<DamageRecord>> damageRecordsByTransaction = allDamageRecords.stream()
-                .collect(Collectors.groupingBy(dr -> dr.getTransaction().getTransactionId()));
-        
         for (InventoryTransaction transaction : transactions) {
             BookingResponse.InventoryTransactionResponse transactionResponse = 
                     new BookingResponse.InventoryTransactionResponse();
@@ -497,7 +628,7 @@ public class BookingService {
             
             // Get damage records for this transaction from the pre-loaded map
             List<DamageRecord> damageRecords = damageRecordsByTransaction.getOrDefault(
-                    transaction.getTransactionId(), new ArrayList<>());
+                    transaction.getTransactionId(), List.of());
             List<BookingResponse.DamageRecordResponse> damageResponses = new ArrayList<>();
             
             for (DamageRecord damage : damageRecords) {
@@ -7,6 +7,7 @@ import com.rental.entity.CustomerMaster;
 import com.rental.exception.ResourceNotFoundException;
 import com.rental.repository.AppUserRepository;
 import com.rental.repository.CustomerMasterRepository;
+import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,6 +18,7 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "rental.service", description = "Service method latency")
 public class CustomerService {
     
     private static final Logger logger = LoggerFactory.getLogger(CustomerService.class);
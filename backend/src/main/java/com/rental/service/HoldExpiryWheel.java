@@ -0,0 +1,108 @@
+package com.rental.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel for reservation-hold expiry.
+ * A deadline is placed in bucket (deadlineTick % size); a single ticker thread visits one
+ * bucket per tick and fires the entries whose deadline has been reached (entries further
+ * out than one rotation simply stay for a later lap). Scheduling and expiring are O(1)
+ * regardless of how many holds are pending. The wheel is only a fast path: the
+ * reservation_hold table stays the source of truth and is re-read at startup.
+ */
+final class HoldExpiryWheel {
+
+    private static final Logger logger = LoggerFactory.getLogger(HoldExpiryWheel.class);
+
+    private final long tickMillis;
+    private final List<ArrayDeque<Timeout>> buckets;
+    private final Consumer<List<Integer>> onExpired;
+    private final long startMillis;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ScheduledExecutorService ticker;
+    // Next tick to process; guarded by lock
+    private long currentTick;
+
+    HoldExpiryWheel(Duration tick, int size, Consumer<List<Integer>> onExpired) {
+        this.tickMillis = tick.toMillis();
+        this.buckets = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            buckets.add(new ArrayDeque<>());
+        }
+        this.onExpired = onExpired;
+        this.startMillis = System.currentTimeMillis();
+        this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "hold-expiry-wheel");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    void start() {
+        ticker.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    void stop() {
+        ticker.shutdownNow();
+    }
+
+    void schedule(Integer holdId, Instant expiresAt) {
+        long deadlineTick = Math.floorDiv(expiresAt.toEpochMilli() - startMillis + tickMillis - 1, tickMillis);
+        lock.lock();
+        try {
+            // Deadlines already passed go to the next bucket to be processed
+            long tick = Math.max(deadlineTick, currentTick);
+            buckets.get((int) (tick % buckets.size())).add(new Timeout(holdId, tick));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void tick() {
+        long targetTick = (System.currentTimeMillis() - startMillis) / tickMillis;
+        List<Integer> due = new ArrayList<>();
+        lock.lock();
+        try {
+            // Catches up if the ticker fell behind (e.g. a slow expiry batch)
+            while (currentTick <= targetTick) {
+                ArrayDeque<Timeout> bucket = buckets.get((int) (currentTick % buckets.size()));
+                Iterator<Timeout> iterator = bucket.iterator();
+                while (iterator.hasNext()) {
+                    Timeout timeout = iterator.next();
+                    if (timeout.deadlineTick() <= currentTick) {
+                        iterator.remove();
+                        due.add(timeout.holdId());
+                    }
+                }
+                currentTick++;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (!due.isEmpty()) {
+            try {
+                onExpired.accept(due);
+            } catch (RuntimeException e) {
+                // Never let an exception cancel the periodic task; the holds are re-read on restart
+                logger.error("Failed to expire {} reservation hold(s): {}", due.size(), e.getMessage(), e);
+            }
+        }
+    }
+
+    private record Timeout(Integer holdId, long deadlineTick) {
+    }
+}
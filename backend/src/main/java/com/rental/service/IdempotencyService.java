@@ -0,0 +1,138 @@
+package com.rental.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.rental.exception.IdempotencyKeyMismatchException;
+import com.rental.exception.TooManyRequestsException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency-Key support for create endpoints.
+ * The first request with a key runs and its response is stored (per user and endpoint)
+ * together with a fingerprint of the request body. A retry with the same key and body gets
+ * the stored response without running the transaction again; a concurrent retry waits for
+ * the first one to finish. Reusing a key with a different body is rejected with 422.
+ * Failed requests are not stored, so they can be retried with the same key.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyService.class);
+    private static final int MAX_KEY_LENGTH = 255;
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private final Cache<String, StoredRequest> requests;
+    private final ObjectMapper objectMapper;
+    private final Duration inProgressWait;
+
+    public IdempotencyService(ObjectMapper objectMapper,
+                              @Value("${idempotency.ttl:PT24H}") Duration ttl,
+                              @Value("${idempotency.max-keys:100000}") long maxKeys,
+                              @Value("${idempotency.in-progress-wait:PT30S}") Duration inProgressWait) {
+        this.objectMapper = objectMapper;
+        this.inProgressWait = inProgressWait;
+        this.requests = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxKeys)
+                .build();
+    }
+
+    /**
+     * Runs the action once per key; without a key the action simply runs.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> ResponseEntity<T> execute(String scope, String key, Object request, Supplier<ResponseEntity<T>> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must not exceed " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String storeKey = scope + ":" + currentUser() + ":" + key;
+        StoredRequest candidate = new StoredRequest(fingerprint(request));
+        StoredRequest stored = requests.asMap().putIfAbsent(storeKey, candidate);
+
+        if (stored == null) {
+            try {
+                ResponseEntity<T> response = action.get();
+                candidate.response.complete(response);
+                return response;
+            } catch (RuntimeException e) {
+                // Not stored: the client may retry with the same key
+                requests.asMap().remove(storeKey, candidate);
+                candidate.response.completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        if (!stored.fingerprint.equals(candidate.fingerprint)) {
+            throw new IdempotencyKeyMismatchException(
+                    "Idempotency-Key '" + key + "' was already used with a different request body");
+        }
+        logger.info("Replaying stored response for idempotency key: {} ({})", key, scope);
+        ResponseEntity<T> original = (ResponseEntity<T>) awaitResponse(stored);
+        return ResponseEntity.status(original.getStatusCode())
+                .headers(original.getHeaders())
+                .header(REPLAYED_HEADER, "true")
+                .body(original.getBody());
+    }
+
+    private ResponseEntity<?> awaitResponse(StoredRequest stored) {
+        try {
+            return stored.response.get(inProgressWait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new TooManyRequestsException("A request with this Idempotency-Key is still being processed", 1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the original request", e);
+        } catch (ExecutionException e) {
+            // The original attempt failed and was discarded; surface the same error to this retry
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Original request failed", e.getCause());
+        }
+    }
+
+    private String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : "anonymous";
+    }
+
+    private String fingerprint(Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(request)));
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Cannot fingerprint request", e);
+        }
+    }
+
+    private static final class StoredRequest {
+        private final String fingerprint;
+        private final CompletableFuture<ResponseEntity<?>> response = new CompletableFuture<>();
+
+        private StoredRequest(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+    }
+}
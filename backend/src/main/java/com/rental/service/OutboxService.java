@@ -0,0 +1,97 @@
+package com.rental.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rental.entity.Booking;
+import com.rental.entity.BookingItem;
+import com.rental.entity.OutboxEvent;
+import com.rental.repository.OutboxEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Records events for downstream consumers (SMS reminders, accounting) in the outbox table.
+ * Must be called inside the transaction that makes the change, so the event exists exactly
+ * when the change is committed; delivery is left to the {@link com.rental.event.OutboxRelay}.
+ */
+@Service
+public class OutboxService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(OutboxService.class);
+    
+    public static final String AGGREGATE_BOOKING = "BOOKING";
+    public static final String AGGREGATE_INVENTORY = "INVENTORY";
+    
+    public static final String BOOKING_CREATED = "BOOKING_CREATED";
+    public static final String BOOKING_UPDATED = "BOOKING_UPDATED";
+    public static final String BOOKING_RETURNED = "BOOKING_RETURNED";
+    public static final String STOCK_CHANGED = "STOCK_CHANGED";
+    
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(String aggregateType, Integer aggregateId, String eventType, Object payload) {
+        OutboxEvent event = new OutboxEvent();
+        event.setAggregateType(aggregateType);
+        event.setAggregateId(aggregateId);
+        event.setEventType(eventType);
+        try {
+            event.setPayload(objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialise " + eventType + " event: " + e.getOriginalMessage(), e);
+        }
+        outboxEventRepository.save(event);
+        logger.debug("Recorded {} event for {} ID: {}", eventType, aggregateType, aggregateId);
+    }
+    
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordBooking(String eventType, Booking booking, List<BookingItem> items) {
+        List<BookingLine> lines = items != null ? items.stream()
+                .map(item -> new BookingLine(item.getVariant().getVariantId(), item.getQuantity(),
+                        item.getRentalStart(), item.getRentalEnd()))
+                .toList() : null;
+        BookingChanged payload = new BookingChanged(booking.getBookingId(), booking.getCustomer().getCustomerId(),
+                booking.getBookingType(), booking.getStatus(), booking.getTotalAmount(), lines);
+        record(AGGREGATE_BOOKING, booking.getBookingId(), eventType, payload);
+    }
+    
+    /**
+     * Records a change of on-hand stock; delta is negative for reservations.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordStockChange(Integer variantId, int delta, Integer availableQuantity, String reason) {
+        StockChanged payload = new StockChanged(variantId, delta, availableQuantity, reason);
+        record(AGGREGATE_INVENTORY, variantId, STOCK_CHANGED, payload);
+    }
+    
+    /**
+     * Booking event payload; items is null when an update left the items unchanged.
+     */
+    public record BookingChanged(Integer bookingId, Integer customerId, String bookingType, String status,
+                                 BigDecimal totalAmount, List<BookingLine> items) {
+    }
+    
+    public record BookingLine(Integer variantId, Integer quantity, LocalDate rentalStart, LocalDate rentalEnd) {
+    }
+    
+    public record BookingReturned(Integer bookingId, LocalDate returnDate, List<ReturnLine> items, boolean completed) {
+    }
+    
+    public record ReturnLine(Integer variantId, Integer quantity) {
+    }
+    
+    public record StockChanged(Integer variantId, int delta, Integer availableQuantity, String reason) {
+    }
+}
@@ -0,0 +1,201 @@
+package com.rental.service;
+
+import com.rental.entity.JobWatermark;
+import com.rental.entity.Penalty;
+import com.rental.repository.InventoryTransactionRepository;
+import com.rental.repository.JobWatermarkRepository;
+import com.rental.repository.PenaltyRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Charges late fees for overdue rentals.
+ * Each run charges the whole days that have passed since the previous run (the watermark),
+ * so a rental that stays out for a week gets one penalty per run covering the new days, and
+ * missed runs are caught up in one go; a partly returned rental is charged only for the units
+ * still out. Only open RENT_OUT transactions are read, a page at a time through the partial
+ * index on expected_return_date; penalties are inserted in JDBC batches. The run and its
+ * watermark update share one transaction, so a failed run charges nothing and the next run
+ * covers the same days.
+ */
+@Service
+@ConditionalOnProperty(name = "overdue.scan.enabled", havingValue = "true", matchIfMissing = true)
+public class OverdueRentalScanner {
+
+    private static final Logger logger = LoggerFactory.getLogger(OverdueRentalScanner.class);
+    private static final String JOB_NAME = "overdue-penalties";
+    private static final String CREATED_BY = "overdue-scanner";
+
+    @Autowired
+    private InventoryTransactionRepository transactionRepository;
+
+    @Autowired
+    private PenaltyRepository penaltyRepository;
+
+    @Autowired
+    private JobWatermarkRepository watermarkRepository;
+
+    @Autowired
+    private PriceIndexService priceIndexService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${overdue.scan.page-size:500}")
+    private int pageSize;
+
+    @Value("${overdue.grace-days:0}")
+    private int graceDays;
+
+    @Value("${overdue.daily-fee-rate:0.10}")
+    private BigDecimal dailyFeeRate;
+
+    @Value("${overdue.default-daily-fee:100.00}")
+    private BigDecimal defaultDailyFee;
+
+    private final TransactionTemplate transactionTemplate;
+    private final Timer runTimer;
+    private final Counter scannedCounter;
+    private final Counter penaltyCounter;
+
+    public OverdueRentalScanner(PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.runTimer = Timer.builder("overdue.scan.duration")
+                .description("Duration of overdue rental scans")
+                .register(meterRegistry);
+        this.scannedCounter = Counter.builder("overdue.scan.transactions")
+                .description("Overdue rental transactions processed")
+                .register(meterRegistry);
+        this.penaltyCounter = Counter.builder("overdue.scan.penalties")
+                .description("Late-fee penalties created")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${overdue.scan.interval:PT1H}", initialDelayString = "${overdue.scan.initial-delay:PT1M}")
+    public void scheduledScan() {
+        try {
+            scan(LocalDate.now().minusDays(1));
+        } catch (RuntimeException e) {
+            logger.error("Overdue rental scan failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Charges every day up to and including chargeThrough that has not been charged yet.
+     * Returns the number of penalties created.
+     */
+    public int scan(LocalDate chargeThrough) {
+        Integer created = runTimer.record(() -> transactionTemplate.execute(status -> {
+            watermarkRepository.createIfAbsent(JOB_NAME);
+            JobWatermark watermark = watermarkRepository.findByIdForUpdate(JOB_NAME).orElseThrow();
+            LocalDate chargedThrough = watermark.getWatermarkDate();
+            if (chargedThrough != null && !chargedThrough.isBefore(chargeThrough)) {
+                logger.debug("Overdue rentals already charged through {}", chargedThrough);
+                return 0;
+            }
+
+            int penalties = chargePages(chargedThrough, chargeThrough);
+            // The persistence context is cleared between pages, so write the row back explicitly
+            watermark.setWatermarkDate(chargeThrough);
+            watermark.setUpdatedAt(LocalDateTime.now());
+            watermarkRepository.save(watermark);
+            return penalties;
+        }));
+        logger.info("Overdue rental scan through {} created {} penalty(ies)", chargeThrough, created);
+        return created != null ? created : 0;
+    }
+
+    private int chargePages(LocalDate chargedThrough, LocalDate chargeThrough) {
+        // A rental is late from the day after its expected return date plus the grace period
+        LocalDate cutoff = chargeThrough.minusDays(graceDays);
+        LocalDate afterDate = null;
+        Integer afterId = null;
+        int penalties = 0;
+        List<InventoryTransactionRepository.OverdueRental> page;
+        do {
+            page = transactionRepository.findOverdueRentals(cutoff, afterDate, afterId, pageSize);
+            List<Penalty> batch = new ArrayList<>(page.size());
+            for (InventoryTransactionRepository.OverdueRental rental : page) {
+                LocalDate chargedUntil = chargedUntil(rental.getExpectedReturnDate(), graceDays, chargedThrough);
+                long days = ChronoUnit.DAYS.between(chargedUntil, chargeThrough);
+                if (days > 0 && rental.getOutstandingQuantity() > 0) {
+                    batch.add(buildPenalty(rental, chargedUntil.plusDays(1), chargeThrough, days));
+                }
+            }
+            scannedCounter.increment(page.size());
+            if (!batch.isEmpty()) {
+                penaltyRepository.saveAll(batch);
+                // Write the batch and drop it from the persistence context to keep memory flat
+                entityManager.flush();
+                entityManager.clear();
+                penalties += batch.size();
+                penaltyCounter.increment(batch.size());
+            }
+            if (!page.isEmpty()) {
+                InventoryTransactionRepository.OverdueRental last = page.get(page.size() - 1);
+                afterDate = last.getExpectedReturnDate();
+                afterId = last.getTransactionId();
+            }
+        } while (page.size() == pageSize);
+        return penalties;
+    }
+
+    /**
+     * Last day that is not (or no longer) chargeable for a rental due on expectedReturnDate:
+     * the end of the grace period, or the watermark when an earlier run already charged past it.
+     */
+    static LocalDate chargedUntil(LocalDate expectedReturnDate, int graceDays, LocalDate chargedThrough) {
+        LocalDate graceEnd = expectedReturnDate.plusDays(graceDays);
+        return chargedThrough != null && chargedThrough.isAfter(graceEnd) ? chargedThrough : graceEnd;
+    }
+
+    private Penalty buildPenalty(InventoryTransactionRepository.OverdueRental rental, LocalDate from, LocalDate to, long days) {
+        BigDecimal dailyFee = dailyFee(rental.getVariantId(), rental.getExpectedReturnDate());
+        int units = rental.getOutstandingQuantity();
+        BigDecimal amount = dailyFee.multiply(BigDecimal.valueOf(days))
+                .multiply(BigDecimal.valueOf(units))
+                .setScale(2, RoundingMode.HALF_UP);
+
+        Penalty penalty = new Penalty();
+        penalty.setTransaction(transactionRepository.getReferenceById(rental.getTransactionId()));
+        penalty.setPenaltyAmount(amount);
+        penalty.setReason(String.format("Late return: %d day(s) from %s to %s, %d unit(s) at %s per day",
+                days, from, to, units, dailyFee.setScale(2, RoundingMode.HALF_UP)));
+        penalty.setIsPaid(false);
+        penalty.setCreatedBy(CREATED_BY);
+        return penalty;
+    }
+
+    /**
+     * Per-unit fee for one late day: a share of the rent price in effect on the due date,
+     * or the default fee for variants without a rent price. Prices come from the in-memory
+     * index, so a page of rentals costs no extra queries.
+     */
+    private BigDecimal dailyFee(Integer variantId, LocalDate dueDate) {
+        PriceTimeline.EffectivePrice rentPrice = priceIndexService.findRentPrice(variantId, dueDate);
+        if (rentPrice == null || rentPrice.getPrice() == null) {
+            return defaultDailyFee;
+        }
+        return rentPrice.getPrice().multiply(dailyFeeRate);
+    }
+}
@@ -0,0 +1,153 @@
+package com.rental.service;
+
+import com.rental.entity.RentPrice;
+import com.rental.entity.SalePrice;
+import com.rental.repository.RentPriceRepository;
+import com.rental.repository.SalePriceRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * In-memory index of effective-dated rent and sale prices.
+ * All price rows are loaded once into per-variant {@link PriceTimeline}s; "price of variant V
+ * on date D" is then a binary search with no database round trip. Writers call
+ * {@link #invalidateAfterCompletion(Integer)} and the variant is reloaded on its next lookup.
+ */
+@Service
+public class PriceIndexService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PriceIndexService.class);
+
+    @Autowired
+    private RentPriceRepository rentPriceRepository;
+
+    @Autowired
+    private SalePriceRepository salePriceRepository;
+
+    private final PriceIndex rentIndex = new PriceIndex("rent");
+    private final PriceIndex saleIndex = new PriceIndex("sale");
+
+    public PriceTimeline.EffectivePrice findRentPrice(Integer variantId, LocalDate date) {
+        return rentIndex.timeline(variantId,
+                () -> toRentPrices(rentPriceRepository.findAllByOrderByRentPriceIdAsc()),
+                id -> toRentPrices(rentPriceRepository.findByVariantVariantIdOrderByRentPriceIdAsc(id)))
+                .priceOn(date);
+    }
+
+    public PriceTimeline.EffectivePrice findSalePrice(Integer variantId, LocalDate date) {
+        return saleIndex.timeline(variantId,
+                () -> toSalePrices(salePriceRepository.findAllByOrderBySalePriceIdAsc()),
+                id -> toSalePrices(salePriceRepository.findByVariantVariantIdOrderBySalePriceIdAsc(id)))
+                .priceOn(date);
+    }
+
+    /**
+     * Drops a variant's prices once the current transaction finishes. Entries loaded while the
+     * transaction was still open (e.g. to build its own response) are discarded on rollback too.
+     */
+    public void invalidateAfterCompletion(Integer variantId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidate(variantId);
+                }
+            });
+        } else {
+            invalidate(variantId);
+        }
+    }
+
+    private void invalidate(Integer variantId) {
+        rentIndex.invalidate(variantId);
+        saleIndex.invalidate(variantId);
+    }
+
+    private Map<Integer, List<PriceTimeline.EffectivePrice>> toRentPrices(List<RentPrice> rows) {
+        Map<Integer, List<PriceTimeline.EffectivePrice>> byVariant = new HashMap<>();
+        for (RentPrice row : rows) {
+            byVariant.computeIfAbsent(row.getVariant().getVariantId(), id -> new ArrayList<>())
+                    .add(new PriceTimeline.EffectivePrice(row.getRentPrice(), row.getEffectiveFrom(), row.getEffectiveTo()));
+        }
+        return byVariant;
+    }
+
+    private Map<Integer, List<PriceTimeline.EffectivePrice>> toSalePrices(List<SalePrice> rows) {
+        Map<Integer, List<PriceTimeline.EffectivePrice>> byVariant = new HashMap<>();
+        for (SalePrice row : rows) {
+            byVariant.computeIfAbsent(row.getVariant().getVariantId(), id -> new ArrayList<>())
+                    .add(new PriceTimeline.EffectivePrice(row.getSalePrice(), row.getEffectiveFrom(), row.getEffectiveTo()));
+        }
+        return byVariant;
+    }
+
+    private static final class PriceIndex {
+
+        private final String name;
+        private final Map<Integer, PriceTimeline> timelines = new ConcurrentHashMap<>();
+        // Bumped on every invalidation so a full load that raced with a write is not published
+        private final AtomicLong generation = new AtomicLong();
+        private final ReentrantLock loadLock = new ReentrantLock();
+        private volatile boolean loaded;
+
+        private PriceIndex(String name) {
+            this.name = name;
+        }
+
+        PriceTimeline timeline(Integer variantId,
+                               Supplier<Map<Integer, List<PriceTimeline.EffectivePrice>>> loadAll,
+                               Function<Integer, Map<Integer, List<PriceTimeline.EffectivePrice>>> loadVariant) {
+            if (!loaded) {
+                loadAll(loadAll);
+            }
+            return timelines.computeIfAbsent(variantId, id -> {
+                List<PriceTimeline.EffectivePrice> prices = loadVariant.apply(id).get(id);
+                return prices != null ? PriceTimeline.of(prices) : PriceTimeline.EMPTY;
+            });
+        }
+
+        private void loadAll(Supplier<Map<Integer, List<PriceTimeline.EffectivePrice>>> loadAll) {
+            // A lock rather than synchronized, so a virtual thread loading from the database
+            // does not pin its carrier thread
+            loadLock.lock();
+            try {
+                if (loaded) {
+                    return;
+                }
+                long startGeneration = generation.get();
+                Map<Integer, List<PriceTimeline.EffectivePrice>> byVariant = loadAll.get();
+                byVariant.forEach((variantId, prices) -> timelines.putIfAbsent(variantId, PriceTimeline.of(prices)));
+                if (generation.get() != startGeneration) {
+                    // A write happened while loading, so some entries may be stale: drop them all,
+                    // serve per-variant loads for now and retry the full load on a later lookup
+                    timelines.clear();
+                    return;
+                }
+                loaded = true;
+                logger.info("Loaded {} price index for {} variant(s)", name, byVariant.size());
+            } finally {
+                loadLock.unlock();
+            }
+        }
+
+        void invalidate(Integer variantId) {
+            generation.incrementAndGet();
+            timelines.remove(variantId);
+        }
+    }
+}
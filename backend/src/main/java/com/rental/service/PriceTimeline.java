@@ -0,0 +1,99 @@
+package com.rental.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable effective-dated prices of one variant, sorted by effective-from date.
+ * A lookup binary-searches the last range starting on or before the date and walks back
+ * to the first one that has not ended yet, so the latest starting range wins on overlap.
+ */
+public final class PriceTimeline {
+
+    static final PriceTimeline EMPTY = new PriceTimeline(new long[0], new EffectivePrice[0]);
+
+    private final long[] fromDays;
+    private final EffectivePrice[] prices;
+
+    private PriceTimeline(long[] fromDays, EffectivePrice[] prices) {
+        this.fromDays = fromDays;
+        this.prices = prices;
+    }
+
+    /**
+     * Price in effect on the given date, or null if there is none.
+     */
+    public EffectivePrice priceOn(LocalDate date) {
+        long day = date.toEpochDay();
+        int index = Arrays.binarySearch(fromDays, day);
+        if (index >= 0) {
+            // Several ranges may start on the same day; the last one is the most recent row
+            while (index + 1 < fromDays.length && fromDays[index + 1] == day) {
+                index++;
+            }
+        } else {
+            index = -index - 2;
+        }
+        for (int i = index; i >= 0; i--) {
+            LocalDate effectiveTo = prices[i].getEffectiveTo();
+            if (effectiveTo == null || !effectiveTo.isBefore(date)) {
+                return prices[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Builds a timeline. Prices must be given in insertion order (ascending ID) so that
+     * rows with the same start date resolve to the newest one. Rows without an
+     * effective-from date are ignored, as they never match the repository queries either.
+     */
+    public static PriceTimeline of(List<EffectivePrice> prices) {
+        List<EffectivePrice> dated = new ArrayList<>(prices.size());
+        for (EffectivePrice price : prices) {
+            if (price.getEffectiveFrom() != null) {
+                dated.add(price);
+            }
+        }
+        if (dated.isEmpty()) {
+            return EMPTY;
+        }
+        // Stable sort keeps insertion order for equal start dates
+        dated.sort(Comparator.comparing(EffectivePrice::getEffectiveFrom));
+
+        long[] fromDays = new long[dated.size()];
+        for (int i = 0; i < dated.size(); i++) {
+            fromDays[i] = dated.get(i).getEffectiveFrom().toEpochDay();
+        }
+        return new PriceTimeline(fromDays, dated.toArray(new EffectivePrice[0]));
+    }
+
+    public static final class EffectivePrice {
+
+        private final BigDecimal price;
+        private final LocalDate effectiveFrom;
+        private final LocalDate effectiveTo;
+
+        public EffectivePrice(BigDecimal price, LocalDate effectiveFrom, LocalDate effectiveTo) {
+            this.price = price;
+            this.effectiveFrom = effectiveFrom;
+            this.effectiveTo = effectiveTo;
+        }
+
+        public BigDecimal getPrice() {
+            return price;
+        }
+
+        public LocalDate getEffectiveFrom() {
+            return effectiveFrom;
+        }
+
+        public LocalDate getEffectiveTo() {
+            return effectiveTo;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.rental.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.rental.dto.response.ProductResponse;
+import com.rental.util.StripedGenerations;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of fully assembled {@link ProductResponse}s, keyed by product ID,
+ * plus the full catalog list. Entries are weighed by their number of variants so the
+ * bound follows memory use rather than product count.
+ * Writers evict after commit; a load that overlaps an eviction of the same product (or, for
+ * the list, of any product) is not stored, so a response built from pre-commit data can
+ * never outlive the write.
+ */
+@Component
+public class ProductCatalogCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductCatalogCache.class);
+    private static final String ALL_PRODUCTS = "all";
+
+    private final Cache<Integer, ProductResponse> products;
+    private final Cache<String, List<ProductResponse>> productList;
+    // Eviction counts by product ID stripe; a product is stored and evicted while holding its stripe
+    private final StripedGenerations generations = new StripedGenerations(256);
+    // Bumped by every eviction, since any product change alters the list; guarded by listLock
+    private long listGeneration;
+    private final Object listLock = new Object();
+
+    public ProductCatalogCache(MeterRegistry meterRegistry,
+                               @Value("${catalog.cache.max-weight:20000}") long maxWeight,
+                               @Value("${catalog.cache.expire-after-write:PT10M}") Duration expireAfterWrite) {
+        // Expiry bounds how long a response can show yesterday's effective price
+        this.products = Caffeine.newBuilder()
+                .maximumWeight(maxWeight)
+                .weigher((Integer id, ProductResponse response) -> weigh(response))
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        this.productList = Caffeine.newBuilder()
+                .maximumSize(1)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, products, "products");
+        CaffeineCacheMetrics.monitor(meterRegistry, productList, "productList");
+    }
+
+    public ProductResponse get(Integer productId, Supplier<ProductResponse> loader) {
+        ProductResponse cached = products.getIfPresent(productId);
+        if (cached != null) {
+            return cached;
+        }
+        long startGeneration = generations.current(productId);
+        ProductResponse response = loader.get();
+        generations.runIfCurrent(productId, startGeneration, () -> products.put(productId, response));
+        return response;
+    }
+
+    public List<ProductResponse> getAll(Supplier<List<ProductResponse>> loader) {
+        List<ProductResponse> cached = productList.getIfPresent(ALL_PRODUCTS);
+        if (cached != null) {
+            return cached;
+        }
+        long startGeneration;
+        synchronized (listLock) {
+            startGeneration = listGeneration;
+        }
+        List<ProductResponse> responses = List.copyOf(loader.get());
+        synchronized (listLock) {
+            // An eviction bumps the list generation before dropping its product, so while the
+            // generation is unchanged no product in the list can have been evicted yet
+            if (listGeneration == startGeneration) {
+                productList.put(ALL_PRODUCTS, responses);
+                responses.forEach(response -> products.put(response.getProductId(), response));
+            }
+        }
+        return responses;
+    }
+
+    /**
+     * Evicts a product and the catalog list once the current transaction commits.
+     */
+    public void evictAfterCommit(Integer productId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(productId);
+                }
+            });
+        } else {
+            evict(productId);
+        }
+    }
+
+    private void evict(Integer productId) {
+        synchronized (listLock) {
+            listGeneration++;
+            productList.invalidateAll();
+        }
+        generations.invalidate(productId, () -> products.invalidate(productId));
+        logger.debug("Evicted product ID: {} from catalog cache", productId);
+    }
+
+    private static int weigh(ProductResponse response) {
+        return 1 + (response.getVariants() != null ? response.getVariants().size() : 0);
+    }
+}
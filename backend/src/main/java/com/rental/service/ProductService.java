@@ -1,23 +1,32 @@
 package com.rental.service;
 
+import com.rental.aspect.RetryOnOptimisticLock;
 import com.rental.dto.request.ProductRequest;
 import com.rental.dto.response.ProductResponse;
 import com.rental.entity.*;
+import com.rental.exception.ConcurrentUpdateException;
 import com.rental.exception.ResourceNotFoundException;
 import com.rental.repository.*;
+import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "rental.service", description = "Service method latency")
 public class ProductService {
     
     private static final Logger logger = LoggerFactory.getLogger(ProductService.class);
@@ -40,26 +49,45 @@ public class ProductService {
     @Autowired
     private InventoryRepository inventoryRepository;
     
-    @Transactional(readOnly = true)
+    @Autowired
+    private PriceIndexService priceIndexService;
+    
+    @Autowired
+    private ProductCatalogCache catalogCache;
+    
+    @Autowired
+    private AvailabilityService availabilityService;
+    
+    @Autowired
+    private OutboxService outboxService;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    /**
+     * Served from the catalog cache; the database is only read (in a read-only transaction)
+     * on a miss, so cache hits never take a connection.
+     */
     public List<ProductResponse> getAllProducts() {
         logger.debug("Fetching all products with variants");
-        List<Product> products = productRepository.findAll();
-        logger.info("Found {} products", products.size());
-        return products.stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        return catalogCache.getAll(() -> readOnly(() -> {
+            List<Product> products = productRepository.findAll();
+            logger.info("Found {} products", products.size());
+            return convertToResponses(products);
+        }));
     }
     
-    @Transactional(readOnly = true)
     public ProductResponse getProductById(Integer id) {
         logger.debug("Fetching product with ID: {} and all variants", id);
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> {
-                    logger.warn("Product not found with ID: {}", id);
-                    return new ResourceNotFoundException("Product not found with ID: " + id);
-                });
-        logger.info("Product found: {}", product.getProductName());
-        return convertToResponse(product);
+        return catalogCache.get(id, () -> readOnly(() -> {
+            Product product = productRepository.findById(id)
+                    .orElseThrow(() -> {
+                        logger.warn("Product not found with ID: {}", id);
+                        return new ResourceNotFoundException("Product not found with ID: " + id);
+                    });
+            logger.info("Product found: {}", product.getProductName());
+            return convertToResponse(product);
+        }));
     }
     
     @Transactional
@@ -80,6 +108,7 @@ public class ProductService {
         
         Product savedProduct = productRepository.save(product);
         logger.info("Product created successfully with ID: {}", savedProduct.getProductId());
+        catalogCache.evictAfterCommit(savedProduct.getProductId());
         
         // Create variants with prices and inventory
         if (request.getVariants() != null && !request.getVariants().isEmpty()) {
@@ -91,6 +120,9 @@ public class ProductService {
         return convertToResponse(savedProduct);
     }
     
+    // A stock change without inventoryVersion is re-read and re-applied when it loses a race;
+    // a stale inventoryVersion is a 409 right away (ConcurrentUpdateException is not retried)
+    @RetryOnOptimisticLock
     @Transactional
     public ProductResponse updateProduct(Integer id, ProductRequest request) {
         logger.info("Updating product with ID: {}", id);
@@ -118,6 +150,7 @@ public class ProductService {
         
         Product updatedProduct = productRepository.save(product);
         logger.info("Product updated successfully: {}", updatedProduct.getProductName());
+        catalogCache.evictAfterCommit(id);
         
         // Update variants if provided
         if (request.getVariants() != null && !request.getVariants().isEmpty()) {
@@ -151,6 +184,7 @@ public class ProductService {
         return convertToResponse(updatedProduct);
     }
     
+    @RetryOnOptimisticLock
     @Transactional
     public void deleteProduct(Integer id) {
         logger.info("Deleting product with ID: {}", id);
@@ -170,6 +204,7 @@ public class ProductService {
         // Soft delete product
         product.setIsActive(false);
         productRepository.save(product);
+        catalogCache.evictAfterCommit(id);
         logger.info("Product soft deleted successfully: {}", product.getProductName());
     }
     
@@ -217,6 +252,14 @@ public class ProductService {
         inventory.setNextAvailabilityDate(request.getNextAvailabilityDate());
         inventoryRepository.save(inventory);
         logger.debug("Created inventory for variant ID: {}", savedVariant.getVariantId());
+        if (inventory.getAvailableQuantity() > 0) {
+            outboxService.recordStockChange(savedVariant.getVariantId(), inventory.getAvailableQuantity(),
+                    inventory.getAvailableQuantity(), "PRODUCT_CREATE");
+        }
+        
+        priceIndexService.invalidateAfterCompletion(savedVariant.getVariantId());
+        // The stock is the calendar's capacity
+        availabilityService.invalidateAfterCommit(savedVariant.getVariantId());
     }
     
     private void updateVariantWithChildren(ProductVariant variant, ProductRequest.ProductVariantRequest request) {
@@ -252,33 +295,107 @@ public class ProductService {
         // Update inventory
         Inventory inventory = inventoryRepository.findByVariantVariantId(variant.getVariantId())
                 .orElse(new Inventory());
+        int quantity = request.getAvailableQuantity() != null ? request.getAvailableQuantity() : 0;
+        int previousQuantity = inventory.getInventoryId() != null ? inventory.getAvailableQuantity() : 0;
+        if (inventory.getInventoryId() != null && quantity != previousQuantity && request.getInventoryVersion() != null) {
+            checkInventoryVersion(variant.getVariantId(), inventory, request.getInventoryVersion());
+        }
         inventory.setVariant(variant);
-        inventory.setAvailableQuantity(request.getAvailableQuantity() != null ? request.getAvailableQuantity() : 0);
+        inventory.setAvailableQuantity(quantity);
         inventory.setAvailabilityStatus(request.getAvailabilityStatus());
         inventory.setExpectedRestoreDate(request.getExpectedRestoreDate());
         inventory.setNextAvailabilityDate(request.getNextAvailabilityDate());
         inventoryRepository.save(inventory);
+        if (quantity != previousQuantity) {
+            outboxService.recordStockChange(variant.getVariantId(), quantity - previousQuantity, quantity, "PRODUCT_UPDATE");
+        }
+        
+        priceIndexService.invalidateAfterCompletion(variant.getVariantId());
+        availabilityService.invalidateAfterCommit(variant.getVariantId());
+    }
+    
+    /**
+     * A client that sends the inventory version it read may only replace the quantity it saw;
+     * otherwise a reservation or return made in between would be lost. Clients that send no
+     * version get the change applied as a delta against the row read in this attempt, whose
+     * version check fails (and the update is retried) if the row moves before the commit.
+     */
+    private void checkInventoryVersion(Integer variantId, Inventory inventory, Long expectedVersion) {
+        if (!expectedVersion.equals(inventory.getVersion())) {
+            logger.warn("Stale stock update for variant ID: {} (version {} read, current {})",
+                    variantId, expectedVersion, inventory.getVersion());
+            throw new ConcurrentUpdateException(
+                    "The stock of variant ID: " + variantId + " was changed by another request, please reload and try again");
+        }
     }
     
     private void deleteVariantAndChildren(Integer variantId) {
         // Delete inventory
-        inventoryRepository.findByVariantVariantId(variantId).ifPresent(inventoryRepository::delete);
+        inventoryRepository.findByVariantVariantId(variantId).ifPresent(inventory -> {
+            inventoryRepository.delete(inventory);
+            if (inventory.getAvailableQuantity() > 0) {
+                outboxService.recordStockChange(variantId, -inventory.getAvailableQuantity(), 0, "VARIANT_DELETE");
+            }
+        });
         
         // Delete prices
-        rentPriceRepository.findAll().stream()
-                .filter(rp -> rp.getVariant().getVariantId().equals(variantId))
-                .forEach(rentPriceRepository::delete);
-        
-        salePriceRepository.findAll().stream()
-                .filter(sp -> sp.getVariant().getVariantId().equals(variantId))
-                .forEach(salePriceRepository::delete);
+        rentPriceRepository.deleteAll(rentPriceRepository.findByVariantVariantIdOrderByRentPriceIdAsc(variantId));
+        salePriceRepository.deleteAll(salePriceRepository.findByVariantVariantIdOrderBySalePriceIdAsc(variantId));
+        priceIndexService.invalidateAfterCompletion(variantId);
+        availabilityService.invalidateAfterCommit(variantId);
         
         // Delete variant
         variantRepository.deleteById(variantId);
         logger.debug("Deleted variant ID: {} and all its children", variantId);
     }
     
+    private <T> T readOnly(Supplier<T> work) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template.execute(status -> work.get());
+    }
+    
     private ProductResponse convertToResponse(Product product) {
+        return convertToResponses(List.of(product)).get(0);
+    }
+    
+    /**
+     * Builds the catalog for a set of products with a fixed number of set-based queries
+     * (variants, inventory), assembled in memory. Current prices come from the price index.
+     */
+    private List<ProductResponse> convertToResponses(List<Product> products) {
+        if (products.isEmpty()) {
+            return new ArrayList<>();
+        }
+        
+        List<Integer> productIds = products.stream()
+                .map(Product::getProductId)
+                .collect(Collectors.toList());
+        List<ProductVariant> variants = variantRepository.findByProductProductIdIn(productIds);
+        Map<Integer, List<ProductVariant>> variantsByProduct = variants.stream()
+                .collect(Collectors.groupingBy(variant -> variant.getProduct().getProductId()));
+        
+        Map<Integer, Inventory> inventories = new HashMap<>();
+        if (!variants.isEmpty()) {
+            List<Integer> variantIds = variants.stream()
+                    .map(ProductVariant::getVariantId)
+                    .collect(Collectors.toList());
+            inventoryRepository.findByVariantVariantIdIn(variantIds)
+                    .forEach(inventory -> inventories.put(inventory.getVariant().getVariantId(), inventory));
+        }
+        
+        LocalDate today = LocalDate.now();
+        List<ProductResponse> responses = new ArrayList<>(products.size());
+        for (Product product : products) {
+            responses.add(buildResponse(product,
+                    variantsByProduct.getOrDefault(product.getProductId(), List.of()),
+                    inventories, today));
+        }
+        return responses;
+    }
+    
+    private ProductResponse buildResponse(Product product, List<ProductVariant> variants,
+                                          Map<Integer, Inventory> inventories, LocalDate today) {
         ProductResponse response = new ProductResponse();
         response.setProductId(product.getProductId());
         response.setProductName(product.getProductName());
@@ -293,8 +410,6 @@ public class ProductService {
         response.setUpdatedBy(product.getUpdatedBy());
         response.setUpdatedAt(product.getUpdatedAt());
         
-        // Load variants with all children
-        List<ProductVariant> variants = variantRepository.findByProductProductId(product.getProductId());
         List<ProductResponse.ProductVariantResponse> variantResponses = new ArrayList<>();
         
         for (ProductVariant variant : variants) {
@@ -306,31 +421,32 @@ public class ProductService {
             variantResponse.setCreatedAt(variant.getCreatedAt());
             variantResponse.setUpdatedAt(variant.getUpdatedAt());
             
-            // Load rent price
-            rentPriceRepository.findCurrentPrice(variant.getVariantId(), LocalDate.now())
-                    .ifPresent(rentPrice -> {
-                        variantResponse.setRentPrice(rentPrice.getRentPrice());
-                        variantResponse.setRentEffectiveFrom(rentPrice.getEffectiveFrom());
-                        variantResponse.setRentEffectiveTo(rentPrice.getEffectiveTo());
-                    });
+            // Rent price (served from the in-memory price index)
+            PriceTimeline.EffectivePrice rentPrice = priceIndexService.findRentPrice(variant.getVariantId(), today);
+            if (rentPrice != null) {
+                variantResponse.setRentPrice(rentPrice.getPrice());
+                variantResponse.setRentEffectiveFrom(rentPrice.getEffectiveFrom());
+                variantResponse.setRentEffectiveTo(rentPrice.getEffectiveTo());
+            }
             
-            // Load sale price
-            salePriceRepository.findCurrentPrice(variant.getVariantId(), LocalDate.now())
-                    .ifPresent(salePrice -> {
-                        variantResponse.setSalePrice(salePrice.getSalePrice());
-                        variantResponse.setSaleEffectiveFrom(salePrice.getEffectiveFrom());
-                        variantResponse.setSaleEffectiveTo(salePrice.getEffectiveTo());
-                    });
+            // Sale price (served from the in-memory price index)
+            PriceTimeline.EffectivePrice salePrice = priceIndexService.findSalePrice(variant.getVariantId(), today);
+            if (salePrice != null) {
+                variantResponse.setSalePrice(salePrice.getPrice());
+                variantResponse.setSaleEffectiveFrom(salePrice.getEffectiveFrom());
+                variantResponse.setSaleEffectiveTo(salePrice.getEffectiveTo());
+            }
             
-            // Load inventory
-            inventoryRepository.findByVariantVariantId(variant.getVariantId())
-                    .ifPresent(inventory -> {
-                        variantResponse.setInventoryId(inventory.getInventoryId());
-                        variantResponse.setAvailableQuantity(inventory.getAvailableQuantity());
-                        variantResponse.setAvailabilityStatus(inventory.getAvailabilityStatus());
-                        variantResponse.setExpectedRestoreDate(inventory.getExpectedRestoreDate());
-                        variantResponse.setNextAvailabilityDate(inventory.getNextAvailabilityDate());
-                    });
+            // Inventory
+            Inventory inventory = inventories.get(variant.getVariantId());
+            if (inventory != null) {
+                variantResponse.setInventoryId(inventory.getInventoryId());
+                variantResponse.setAvailableQuantity(inventory.getAvailableQuantity());
+                variantResponse.setInventoryVersion(inventory.getVersion());
+                variantResponse.setAvailabilityStatus(inventory.getAvailabilityStatus());
+                variantResponse.setExpectedRestoreDate(inventory.getExpectedRestoreDate());
+                variantResponse.setNextAvailabilityDate(inventory.getNextAvailabilityDate());
+            }
             
             variantResponses.add(variantResponse);
         }
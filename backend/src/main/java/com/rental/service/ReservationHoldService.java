@@ -0,0 +1,433 @@
+package com.rental.service;
+
+import com.rental.dto.request.BookingRequest;
+import com.rental.dto.request.HoldConversionRequest;
+import com.rental.dto.request.ReservationHoldRequest;
+import com.rental.dto.response.BookingResponse;
+import com.rental.dto.response.ReservationHoldResponse;
+import com.rental.entity.Booking;
+import com.rental.entity.Inventory;
+import com.rental.entity.ProductVariant;
+import com.rental.entity.ReservationHold;
+import com.rental.exception.HoldExpiredException;
+import com.rental.exception.InsufficientInventoryException;
+import com.rental.exception.ResourceNotFoundException;
+import com.rental.repository.InventoryRepository;
+import com.rental.repository.ProductVariantRepository;
+import com.rental.repository.ReservationHoldRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Short-term reservation holds.
+ * A hold sets stock aside for a few minutes and is either converted into a booking or expires.
+ * Dated holds take calendar capacity (see {@link AvailabilityService}); undated holds take
+ * on-hand stock with the same atomic UPDATE as a booking and give it back on expiry or release.
+ * Deadlines are tracked by a {@link HoldExpiryWheel}; the reservation_hold table is the
+ * source of truth, so pending holds are rescheduled from it at startup. A hold that fails
+ * to expire is retried with backoff, and a periodic sweep of the table expires anything the
+ * wheel missed.
+ * Locks are always taken hold rows first, then inventory rows, in ID order.
+ */
+@Service
+@Timed(value = "rental.service", description = "Service method latency")
+public class ReservationHoldService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReservationHoldService.class);
+
+    @Autowired
+    private ReservationHoldRepository reservationHoldRepository;
+
+    @Autowired
+    private ProductVariantRepository variantRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private AvailabilityService availabilityService;
+
+    @Autowired
+    private ProductCatalogCache catalogCache;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${holds.default-minutes:15}")
+    private int defaultMinutes;
+
+    @Value("${holds.max-minutes:120}")
+    private int maxMinutes;
+
+    @Value("${holds.wheel.tick:PT1S}")
+    private Duration wheelTick;
+
+    @Value("${holds.wheel.size:4096}")
+    private int wheelSize;
+
+    @Value("${holds.retry.initial-backoff:PT5S}")
+    private Duration retryInitialBackoff;
+
+    @Value("${holds.retry.max-backoff:PT5M}")
+    private Duration retryMaxBackoff;
+
+    @Value("${holds.sweep.grace:PT1M}")
+    private Duration sweepGrace;
+
+    // Consecutive expiry failures by hold ID; only failing holds have an entry
+    private final Map<Integer, Integer> expiryFailures = new ConcurrentHashMap<>();
+
+    private HoldExpiryWheel wheel;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void startWheel() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        wheel = new HoldExpiryWheel(wheelTick, wheelSize, this::expire);
+        wheel.start();
+    }
+
+    @PreDestroy
+    void stopWheel() {
+        wheel.stop();
+    }
+
+    /**
+     * Re-arms the wheel for holds that were pending when the application last stopped.
+     * Holds whose deadline has already passed are expired on the first tick.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverPendingHolds() {
+        List<ReservationHoldRepository.HoldDeadline> deadlines = reservationHoldRepository.findActiveDeadlines();
+        deadlines.forEach(deadline -> schedule(deadline.getHoldId(), deadline.getExpiresAt()));
+        logger.info("Scheduled {} pending reservation hold(s) for expiry", deadlines.size());
+    }
+
+    /**
+     * Safety net for the wheel: expires active holds whose deadline has passed but that were
+     * lost from the wheel (a failed tick, a schedule call that never ran after commit).
+     */
+    @Scheduled(fixedDelayString = "${holds.sweep.interval:PT5M}", initialDelayString = "${holds.sweep.interval:PT5M}")
+    public void sweepExpiredHolds() {
+        try {
+            // The grace period leaves holds that just expired to the wheel; failing holds are already being retried
+            List<Integer> holdIds = new ArrayList<>(reservationHoldRepository.findExpiredActiveIds(
+                    LocalDateTime.now().minus(sweepGrace)));
+            holdIds.removeIf(expiryFailures::containsKey);
+            if (!holdIds.isEmpty()) {
+                logger.warn("Sweep found {} expired reservation hold(s) still active", holdIds.size());
+                expire(holdIds);
+            }
+        } catch (RuntimeException e) {
+            logger.error("Reservation hold sweep failed: {}", e.getMessage(), e);
+        }
+    }
+
+    @Transactional
+    public ReservationHoldResponse createHold(ReservationHoldRequest request) {
+        logger.info("Creating reservation hold for variant ID: {}, quantity: {}, from {} to {}",
+                request.getVariantId(), request.getQuantity(), request.getRentalStart(), request.getRentalEnd());
+        if ((request.getRentalStart() == null) != (request.getRentalEnd() == null)) {
+            throw new IllegalArgumentException("Rental start and end dates must be given together");
+        }
+        int minutes = request.getHoldMinutes() != null ? request.getHoldMinutes() : defaultMinutes;
+        if (minutes > maxMinutes) {
+            throw new IllegalArgumentException("Hold minutes must not exceed " + maxMinutes);
+        }
+
+        ProductVariant variant = variantRepository.findById(request.getVariantId())
+                .orElseThrow(() -> {
+                    logger.warn("Product variant not found with ID: {}", request.getVariantId());
+                    return new ResourceNotFoundException("Product variant not found with ID: " + request.getVariantId());
+                });
+
+        ReservationHold hold = new ReservationHold();
+        hold.setVariant(variant);
+        hold.setQuantity(request.getQuantity());
+        hold.setRentalStart(request.getRentalStart());
+        hold.setRentalEnd(request.getRentalEnd());
+        hold.setStatus(ReservationHold.STATUS_ACTIVE);
+        hold.setExpiresAt(LocalDateTime.now().plusMinutes(minutes));
+        hold.setCreatedBy(currentUser());
+
+        if (hold.isDated()) {
+            availabilityService.reserveDateRange(variant, hold.getQuantity(), hold.getRentalStart(), hold.getRentalEnd());
+        } else {
+            availabilityService.reserveStock(variant, hold.getQuantity());
+            InventoryRepository.InventoryReservation reservation = inventoryRepository
+                    .reserveQuantity(variant.getVariantId(), hold.getQuantity(), "HOLD", null)
+                    .orElseThrow(() -> rejectHold(variant, hold.getQuantity()));
+            availabilityService.invalidateAfterCommit(variant.getVariantId());
+            catalogCache.evictAfterCommit(variant.getProduct().getProductId());
+            outboxService.recordStockChange(variant.getVariantId(), -hold.getQuantity(),
+                    reservation.getAvailableQuantity(), "HOLD");
+        }
+
+        ReservationHold savedHold = reservationHoldRepository.save(hold);
+        scheduleAfterCommit(savedHold.getHoldId(), savedHold.getExpiresAt());
+        logger.info("Reservation hold created with ID: {}, expires at {}", savedHold.getHoldId(), savedHold.getExpiresAt());
+        return convertToResponse(savedHold);
+    }
+
+    @Transactional(readOnly = true)
+    public ReservationHoldResponse getHoldById(Integer id) {
+        logger.debug("Fetching reservation hold with ID: {}", id);
+        ReservationHold hold = reservationHoldRepository.findById(id)
+                .orElseThrow(() -> {
+                    logger.warn("Reservation hold not found with ID: {}", id);
+                    return new ResourceNotFoundException("Reservation hold not found with ID: " + id);
+                });
+        return convertToResponse(hold);
+    }
+
+    /**
+     * Gives a hold's stock back before its deadline. Releasing a hold that is no longer
+     * active is a no-op, so clients can retry safely.
+     */
+    @Transactional
+    public ReservationHoldResponse releaseHold(Integer id) {
+        logger.info("Releasing reservation hold with ID: {}", id);
+        ReservationHold hold = reservationHoldRepository.findByIdForUpdate(id)
+                .orElseThrow(() -> {
+                    logger.warn("Reservation hold not found with ID: {}", id);
+                    return new ResourceNotFoundException("Reservation hold not found with ID: " + id);
+                });
+        if (ReservationHold.STATUS_ACTIVE.equals(hold.getStatus())) {
+            finish(hold, ReservationHold.STATUS_RELEASED);
+        }
+        return convertToResponse(hold);
+    }
+
+    /**
+     * Turns active holds into one booking. The held capacity is moved to the booking items
+     * as-is, so no second availability check runs; the inventory rows of dated holds are
+     * locked for the switch so a concurrent check never sees the capacity counted twice or not at all.
+     */
+    @Transactional
+    public BookingResponse convertHolds(HoldConversionRequest request) {
+        Set<Integer> holdIds = request.getHolds().stream()
+                .map(HoldConversionRequest.HoldItem::getHoldId)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        if (holdIds.size() != request.getHolds().size()) {
+            throw new IllegalArgumentException("Each hold can only be converted once");
+        }
+        logger.info("Converting reservation hold(s) {} into a booking for customer ID: {}", holdIds, request.getCustomerId());
+
+        Map<Integer, ReservationHold> holds = reservationHoldRepository.findAllByIdForUpdate(holdIds).stream()
+                .collect(Collectors.toMap(ReservationHold::getHoldId, Function.identity()));
+        String normalizedType = request.getBookingType().toUpperCase();
+        LocalDateTime now = LocalDateTime.now();
+        Set<Integer> datedVariantIds = new TreeSet<>();
+        for (Integer holdId : holdIds) {
+            ReservationHold hold = holds.get(holdId);
+            if (hold == null) {
+                logger.warn("Reservation hold not found with ID: {}", holdId);
+                throw new ResourceNotFoundException("Reservation hold not found with ID: " + holdId);
+            }
+            if (!ReservationHold.STATUS_ACTIVE.equals(hold.getStatus()) || !hold.getExpiresAt().isAfter(now)) {
+                throw new HoldExpiredException(String.format("Reservation hold %d is no longer active (status: %s)",
+                        holdId, hold.getExpiresAt().isAfter(now) ? hold.getStatus() : ReservationHold.STATUS_EXPIRED));
+            }
+            if (hold.isDated()) {
+                if (!"RENT".equals(normalizedType)) {
+                    throw new IllegalArgumentException(
+                            String.format("Reservation hold %d has rental dates and can only become a RENT booking", holdId));
+                }
+                datedVariantIds.add(hold.getVariant().getVariantId());
+            }
+        }
+        datedVariantIds.forEach(availabilityService::lockVariant);
+
+        BookingRequest bookingRequest = new BookingRequest();
+        bookingRequest.setCustomerId(request.getCustomerId());
+        bookingRequest.setBookingType(request.getBookingType());
+        bookingRequest.setStatus(request.getStatus());
+        List<BookingRequest.BookingItemRequest> items = new ArrayList<>(holdIds.size());
+        for (HoldConversionRequest.HoldItem holdItem : request.getHolds()) {
+            ReservationHold hold = holds.get(holdItem.getHoldId());
+            BookingRequest.BookingItemRequest item = new BookingRequest.BookingItemRequest();
+            item.setVariantId(hold.getVariant().getVariantId());
+            item.setQuantity(hold.getQuantity());
+            item.setRentalStart(hold.getRentalStart());
+            item.setRentalEnd(hold.getRentalEnd());
+            item.setUnitPrice(holdItem.getUnitPrice());
+            item.setSubtotal(holdItem.getSubtotal());
+            items.add(item);
+        }
+        bookingRequest.setItems(items);
+
+        Booking booking = bookingService.placeBooking(bookingRequest, false);
+        for (ReservationHold hold : holds.values()) {
+            hold.setStatus(ReservationHold.STATUS_CONVERTED);
+            hold.setBooking(booking);
+        }
+        logger.info("Converted {} reservation hold(s) into booking ID: {}", holds.size(), booking.getBookingId());
+        return bookingService.getBookingById(booking.getBookingId());
+    }
+
+    /**
+     * Called by the wheel with holds whose deadline has passed. Each hold is expired in its own
+     * transaction so one failure does not keep the others' stock locked up; a failed hold is put
+     * back on the wheel with exponential backoff.
+     */
+    private void expire(List<Integer> holdIds) {
+        int expired = 0;
+        for (Integer holdId : holdIds) {
+            try {
+                Boolean done = transactionTemplate.execute(status -> expireHold(holdId));
+                expiryFailures.remove(holdId);
+                if (Boolean.TRUE.equals(done)) {
+                    expired++;
+                }
+            } catch (RuntimeException e) {
+                int failures = expiryFailures.merge(holdId, 1, Integer::sum);
+                Duration backoff = retryBackoff(failures);
+                logger.error("Failed to expire reservation hold ID: {} (attempt {}), retrying in {}: {}",
+                        holdId, failures, backoff, e.getMessage(), e);
+                meterRegistry.counter("holds.expiry.failures").increment();
+                schedule(holdId, LocalDateTime.now().plus(backoff));
+            }
+        }
+        if (expired > 0) {
+            logger.info("Expired {} reservation hold(s)", expired);
+        }
+    }
+
+    private boolean expireHold(Integer holdId) {
+        ReservationHold hold = reservationHoldRepository.findByIdForUpdate(holdId).orElse(null);
+        if (hold == null || !ReservationHold.STATUS_ACTIVE.equals(hold.getStatus())) {
+            // Converted or released in the meantime
+            return false;
+        }
+        if (hold.getExpiresAt().isAfter(LocalDateTime.now())) {
+            // Woken early (clock adjustment, tick rounding): try again at the real deadline
+            scheduleAfterCommit(holdId, hold.getExpiresAt());
+            return false;
+        }
+        finish(hold, ReservationHold.STATUS_EXPIRED);
+        return true;
+    }
+
+    /**
+     * Ends an active hold and gives its stock back.
+     */
+    private void finish(ReservationHold hold, String status) {
+        hold.setStatus(status);
+        Integer variantId = hold.getVariant().getVariantId();
+        if (!hold.isDated()) {
+            inventoryRepository.restoreQuantity(variantId, hold.getQuantity());
+            catalogCache.evictAfterCommit(hold.getVariant().getProduct().getProductId());
+            outboxService.recordStockChange(variantId, hold.getQuantity(), null, "HOLD_" + status);
+        }
+        availabilityService.invalidateAfterCommit(variantId);
+        logger.debug("Reservation hold ID: {} is now {}", hold.getHoldId(), status);
+    }
+
+    /**
+     * Initial backoff doubled per consecutive failure, capped at the maximum.
+     */
+    Duration retryBackoff(int failures) {
+        int doublings = Math.min(failures - 1, 20);
+        Duration backoff = retryInitialBackoff.multipliedBy(1L << doublings);
+        return backoff.compareTo(retryMaxBackoff) > 0 ? retryMaxBackoff : backoff;
+    }
+
+    private void scheduleAfterCommit(Integer holdId, LocalDateTime expiresAt) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    schedule(holdId, expiresAt);
+                }
+            });
+        } else {
+            schedule(holdId, expiresAt);
+        }
+    }
+
+    private void schedule(Integer holdId, LocalDateTime expiresAt) {
+        wheel.schedule(holdId, expiresAt.atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    /**
+     * Builds the error for an undated hold that matched no inventory row.
+     */
+    private RuntimeException rejectHold(ProductVariant variant, Integer requestedQuantity) {
+        Inventory inventory = inventoryRepository.findByVariantVariantId(variant.getVariantId()).orElse(null);
+        if (inventory == null) {
+            logger.warn("Inventory not found for variant ID: {}", variant.getVariantId());
+            return new ResourceNotFoundException("Inventory not found for variant ID: " + variant.getVariantId());
+        }
+
+        logger.warn("Insufficient inventory to hold variant ID: {}. Available: {}, Requested: {}",
+                variant.getVariantId(), inventory.getAvailableQuantity(), requestedQuantity);
+        meterRegistry.counter("inventory.insufficient", "check", "stock").increment();
+        return new InsufficientInventoryException(
+                String.format("Insufficient inventory for product '%s' (Size: %s). Available: %d, Requested: %d",
+                        variant.getProduct().getProductName(),
+                        variant.getSize().getSizeCode(),
+                        inventory.getAvailableQuantity(),
+                        requestedQuantity));
+    }
+
+    private String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : null;
+    }
+
+    private ReservationHoldResponse convertToResponse(ReservationHold hold) {
+        ReservationHoldResponse response = new ReservationHoldResponse();
+        response.setHoldId(hold.getHoldId());
+        response.setVariantId(hold.getVariant().getVariantId());
+        response.setProductName(hold.getVariant().getProduct().getProductName());
+        response.setSizeCode(hold.getVariant().getSize().getSizeCode());
+        response.setQuantity(hold.getQuantity());
+        response.setRentalStart(hold.getRentalStart());
+        response.setRentalEnd(hold.getRentalEnd());
+        response.setStatus(hold.getStatus());
+        response.setExpiresAt(hold.getExpiresAt());
+        response.setBookingId(hold.getBooking() != null ? hold.getBooking().getBookingId() : null);
+        response.setCreatedAt(hold.getCreatedAt());
+        return response;
+    }
+}
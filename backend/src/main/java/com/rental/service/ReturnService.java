@@ -0,0 +1,273 @@
+package com.rental.service;
+
+import com.rental.dto.request.BookingRequest;
+import com.rental.dto.request.ReturnRequest;
+import com.rental.dto.response.BookingResponse;
+import com.rental.dto.response.BulkOperationResponse;
+import com.rental.entity.Booking;
+import com.rental.entity.DamageRecord;
+import com.rental.entity.InventoryTransaction;
+import com.rental.entity.ProductVariant;
+import com.rental.exception.ResourceNotFoundException;
+import com.rental.repository.BookingRepository;
+import com.rental.repository.DamageRecordRepository;
+import com.rental.repository.InventoryRepository;
+import com.rental.repository.InventoryTransactionRepository;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Rental returns.
+ * A return writes one RETURN transaction per returned variant and marks the RENT_OUT
+ * transactions it covers as RETURNED (oldest first, so partial returns add up). Only
+ * undated rentals took units off the inventory row, so only their share is given back;
+ * dated rentals hold calendar capacity until their return date, early or overdue.
+ * Stock is restored with one atomic UPDATE per variant, in variant ID order.
+ */
+@Service
+@Timed(value = "rental.service", description = "Service method latency")
+public class ReturnService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReturnService.class);
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private InventoryTransactionRepository transactionRepository;
+
+    @Autowired
+    private DamageRecordRepository damageRecordRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private AvailabilityService availabilityService;
+
+    @Autowired
+    private ProductCatalogCache catalogCache;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Transactional
+    public BookingResponse processReturn(Integer bookingId, ReturnRequest request) {
+        Map<Integer, Restore> restores = new TreeMap<>();
+        recordReturn(bookingId, request, restores);
+        restoreInventory(restores);
+        return bookingService.getBookingById(bookingId);
+    }
+
+    /**
+     * Processes a day's returns in one transaction, restoring stock once per variant for the
+     * whole batch. If any return fails, the batch is rolled back and each return is retried in
+     * its own transaction so only the bad ones are reported as failed. Returns are applied in
+     * booking ID order so concurrent batches lock bookings in the same order.
+     */
+    public BulkOperationResponse processReturns(List<ReturnRequest> requests) {
+        logger.info("Processing batch of {} return(s)", requests.size());
+        List<PendingReturn> pending = new ArrayList<>(requests.size());
+        BulkOperationResponse report = new BulkOperationResponse();
+        for (int i = 0; i < requests.size(); i++) {
+            if (requests.get(i).getBookingId() == null) {
+                report.addFailure(i + 1, "Booking ID is required");
+            } else {
+                pending.add(new PendingReturn(i + 1, requests.get(i)));
+            }
+        }
+        pending.sort(Comparator.comparing((PendingReturn p) -> p.request().getBookingId()).thenComparing(PendingReturn::row));
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Map<Integer, Restore> restores = new TreeMap<>();
+                pending.forEach(p -> recordReturn(p.request().getBookingId(), p.request(), restores));
+                restoreInventory(restores);
+            });
+            pending.forEach(p -> report.addSuccess(p.row(), p.request().getBookingId()));
+        } catch (RuntimeException e) {
+            logger.warn("Batch of {} return(s) failed ({}), retrying one by one", pending.size(), e.getMessage());
+            for (PendingReturn p : pending) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> {
+                        Map<Integer, Restore> restores = new TreeMap<>();
+                        recordReturn(p.request().getBookingId(), p.request(), restores);
+                        restoreInventory(restores);
+                    });
+                    report.addSuccess(p.row(), p.request().getBookingId());
+                } catch (RuntimeException rowFailure) {
+                    report.addFailure(p.row(), rowFailure.getMessage());
+                }
+            }
+        }
+        report.getResults().sort(Comparator.comparingInt(BulkOperationResponse.RowResult::getRow));
+        logger.info("Batch returns finished: {} processed, {} failed", report.getSucceeded(), report.getFailed());
+        return report;
+    }
+
+    private void recordReturn(Integer bookingId, ReturnRequest request, Map<Integer, Restore> restores) {
+        Booking booking = bookingRepository.findByIdForUpdate(bookingId)
+                .orElseThrow(() -> {
+                    logger.warn("Booking not found with ID: {}", bookingId);
+                    return new ResourceNotFoundException("Booking not found with ID: " + bookingId);
+                });
+        if (!"RENT".equalsIgnoreCase(booking.getBookingType())) {
+            throw new IllegalArgumentException("Only RENT bookings can be returned (booking ID: " + bookingId + ")");
+        }
+        LocalDate returnDate = request.getReturnDate() != null ? request.getReturnDate() : LocalDate.now();
+        logger.info("Recording return of {} item(s) for booking ID: {} on {}", request.getItems().size(), bookingId, returnDate);
+
+        Map<Integer, List<InventoryTransaction>> rentOutsByVariant = new TreeMap<>();
+        Map<Integer, Integer> returnedByVariant = new TreeMap<>();
+        for (InventoryTransaction transaction : transactionRepository.findByBookingBookingId(bookingId)) {
+            Integer variantId = transaction.getVariant().getVariantId();
+            if ("RENT_OUT".equals(transaction.getTransactionType()) && !"CANCELLED".equals(transaction.getStatus())) {
+                rentOutsByVariant.computeIfAbsent(variantId, id -> new ArrayList<>()).add(transaction);
+            } else if ("RETURN".equals(transaction.getTransactionType())) {
+                returnedByVariant.merge(variantId, transaction.getQuantity(), Integer::sum);
+            }
+        }
+
+        for (ReturnRequest.ReturnItemRequest item : request.getItems()) {
+            List<InventoryTransaction> rentOuts = rentOutsByVariant.getOrDefault(item.getVariantId(), List.of());
+            if (rentOuts.isEmpty()) {
+                throw new IllegalArgumentException(String.format(
+                        "Variant ID %d was not rented in booking ID %d", item.getVariantId(), bookingId));
+            }
+            int alreadyReturned = returnedByVariant.getOrDefault(item.getVariantId(), 0);
+            int restored = coverRentOuts(rentOuts, alreadyReturned, item.getQuantity(), returnDate, bookingId);
+            returnedByVariant.merge(item.getVariantId(), item.getQuantity(), Integer::sum);
+
+            ProductVariant variant = rentOuts.get(0).getVariant();
+            InventoryTransaction returnTransaction = new InventoryTransaction();
+            returnTransaction.setBooking(booking);
+            returnTransaction.setVariant(variant);
+            returnTransaction.setTransactionType("RETURN");
+            returnTransaction.setQuantity(item.getQuantity());
+            returnTransaction.setActualReturnDate(returnDate);
+            returnTransaction.setStatus("COMPLETED");
+            returnTransaction.setNotes(item.getNotes() != null ? item.getNotes()
+                    : String.format("Return of %d unit(s) for booking ID: %d", item.getQuantity(), bookingId));
+            transactionRepository.save(returnTransaction);
+
+            if (item.getDamageRecord() != null) {
+                createDamageRecord(returnTransaction, item.getDamageRecord());
+            }
+            // The calendar ends dated rentals on their return date
+            availabilityService.invalidateAfterCommit(variant.getVariantId());
+            if (restored > 0) {
+                restores.computeIfAbsent(variant.getVariantId(), id -> new Restore(variant)).add(restored);
+            }
+        }
+
+        boolean allReturned = rentOutsByVariant.values().stream()
+                .flatMap(List::stream)
+                .allMatch(transaction -> "RETURNED".equals(transaction.getStatus()));
+        if (allReturned) {
+            booking.setStatus("COMPLETED");
+            logger.info("All rented items of booking ID: {} returned, booking completed", bookingId);
+        }
+        outboxService.record(OutboxService.AGGREGATE_BOOKING, bookingId, OutboxService.BOOKING_RETURNED,
+                new OutboxService.BookingReturned(bookingId, returnDate, request.getItems().stream()
+                        .map(item -> new OutboxService.ReturnLine(item.getVariantId(), item.getQuantity()))
+                        .toList(), allReturned));
+    }
+
+    /**
+     * Marks the RENT_OUT transactions covered by a return, oldest first, skipping the units
+     * returned earlier. Returns how many of the newly returned units came from undated rentals
+     * and therefore go back on the inventory row.
+     */
+    static int coverRentOuts(List<InventoryTransaction> rentOuts, int alreadyReturned, int quantity,
+                             LocalDate returnDate, Integer bookingId) {
+        int remaining = quantity;
+        int restored = 0;
+        int covered = 0;
+        int outstanding = 0;
+        for (InventoryTransaction rentOut : rentOuts) {
+            int returnedBefore = Math.min(Math.max(alreadyReturned - covered, 0), rentOut.getQuantity());
+            covered += rentOut.getQuantity();
+            int open = "RETURNED".equals(rentOut.getStatus()) ? 0 : rentOut.getQuantity() - returnedBefore;
+            outstanding += open;
+            int taken = Math.min(open, remaining);
+            if (taken == 0) {
+                continue;
+            }
+            remaining -= taken;
+            if ("ACTIVE".equals(rentOut.getStatus())) {
+                restored += taken;
+            }
+            if (taken == open) {
+                rentOut.setStatus("RETURNED");
+                rentOut.setActualReturnDate(returnDate);
+            }
+        }
+        if (remaining > 0) {
+            logger.warn("Return of {} unit(s) of variant ID: {} exceeds the {} outstanding for booking ID: {}",
+                    quantity, rentOuts.get(0).getVariant().getVariantId(), outstanding, bookingId);
+            throw new IllegalArgumentException(String.format(
+                    "Cannot return %d unit(s) of variant ID %d for booking ID %d. Outstanding: %d",
+                    quantity, rentOuts.get(0).getVariant().getVariantId(), bookingId, outstanding));
+        }
+        return restored;
+    }
+
+    private void createDamageRecord(InventoryTransaction transaction, BookingRequest.DamageRecordRequest request) {
+        DamageRecord damageRecord = new DamageRecord();
+        damageRecord.setTransaction(transaction);
+        damageRecord.setDescription(request.getDescription());
+        damageRecord.setRepairCost(request.getRepairCost());
+        damageRecordRepository.save(damageRecord);
+        logger.debug("Recorded damage for return transaction ID: {}", transaction.getTransactionId());
+    }
+
+    private void restoreInventory(Map<Integer, Restore> restores) {
+        for (Restore restore : restores.values()) {
+            Integer variantId = restore.variant.getVariantId();
+            if (inventoryRepository.restoreQuantity(variantId, restore.quantity) == 0) {
+                logger.warn("Inventory not found for variant ID: {}", variantId);
+                throw new ResourceNotFoundException("Inventory not found for variant ID: " + variantId);
+            }
+            availabilityService.invalidateAfterCommit(variantId);
+            catalogCache.evictAfterCommit(restore.variant.getProduct().getProductId());
+            outboxService.recordStockChange(variantId, restore.quantity, null, "RETURN");
+            logger.info("Restored {} unit(s) to inventory of variant ID: {}", restore.quantity, variantId);
+        }
+    }
+
+    private static final class Restore {
+        private final ProductVariant variant;
+        private int quantity;
+
+        private Restore(ProductVariant variant) {
+            this.variant = variant;
+        }
+
+        private void add(int units) {
+            quantity += units;
+        }
+    }
+
+    private record PendingReturn(int row, ReturnRequest request) {
+    }
+}
@@ -0,0 +1,81 @@
+package com.rental.service;
+
+import com.rental.entity.Role;
+import com.rental.repository.RoleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * All roles by name, loaded at startup so registration does not query the role table.
+ * Roles created through the application are added after their transaction commits; the
+ * whole table is re-read periodically to pick up roles changed directly in the database.
+ * Cached roles are detached: attach them with {@code RoleRepository.getReferenceById}.
+ */
+@Component
+public class RoleCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(RoleCache.class);
+
+    private volatile Map<String, Role> roles = new ConcurrentHashMap<>();
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${auth.role-cache.refresh-interval:PT10M}",
+            initialDelayString = "${auth.role-cache.refresh-interval:PT10M}")
+    public void refresh() {
+        try {
+            Map<String, Role> loaded = roleRepository.findAll().stream()
+                    .collect(Collectors.toMap(Role::getRoleName, Function.identity(), (first, second) -> first,
+                            ConcurrentHashMap::new));
+            roles = loaded;
+            logger.debug("Loaded {} role(s) into the role cache", loaded.size());
+        } catch (RuntimeException e) {
+            // Keep serving the previous roles; misses still fall back to the database
+            logger.error("Failed to refresh role cache: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Looks the role up in the cache, falling back to the database for roles not seen yet.
+     */
+    public Optional<Role> find(String roleName) {
+        Role cached = roles.get(roleName);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<Role> role = roleRepository.findByRoleName(roleName);
+        role.ifPresent(found -> roles.put(found.getRoleName(), found));
+        return role;
+    }
+
+    /**
+     * Adds a role created in the current transaction once it commits.
+     */
+    public void addAfterCommit(Role role) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    roles.put(role.getRoleName(), role);
+                }
+            });
+        } else {
+            roles.put(role.getRoleName(), role);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.rental.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Emails and mobile numbers that recently matched no user, so repeated logins with them
+ * (credential stuffing, typos retried in a loop) are rejected without a query.
+ * Registration forgets the new user's identifiers after commit; as in the catalog cache, a
+ * miss that overlaps such an eviction is not stored, so a new user is never locked out.
+ */
+@Component
+public class UnknownLoginCache {
+
+    private final Cache<String, Boolean> unknown;
+    // Bumped on every eviction so lookups that raced with a registration are not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    public UnknownLoginCache(MeterRegistry meterRegistry,
+                             @Value("${auth.unknown-login-cache.max-size:100000}") long maxSize,
+                             @Value("${auth.unknown-login-cache.expire-after-write:PT5M}") Duration expireAfterWrite) {
+        this.unknown = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, unknown, "unknownLogins");
+    }
+
+    public boolean isUnknown(String identifier) {
+        return unknown.getIfPresent(identifier) != null;
+    }
+
+    /**
+     * Read before the lookup and passed to {@link #markUnknown}.
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    public void markUnknown(String identifier, long lookupGeneration) {
+        if (generation.get() == lookupGeneration) {
+            unknown.put(identifier, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Forgets identifiers of a user created in the current transaction once it commits.
+     */
+    public void forgetAfterCommit(String... identifiers) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    forget(identifiers);
+                }
+            });
+        } else {
+            forget(identifiers);
+        }
+    }
+
+    private void forget(String... identifiers) {
+        generation.incrementAndGet();
+        for (String identifier : identifiers) {
+            if (identifier != null) {
+                unknown.invalidate(identifier);
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.rental.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor for the booking list: the booking date and ID of the last row
+ * returned, encoded as URL-safe Base64 so clients treat it as a token.
+ */
+public final class BookingCursor {
+    
+    private static final String SEPARATOR = "|";
+    
+    private final LocalDateTime bookingDate;
+    private final Integer bookingId;
+    
+    public BookingCursor(LocalDateTime bookingDate, Integer bookingId) {
+        this.bookingDate = bookingDate;
+        this.bookingId = bookingId;
+    }
+    
+    public LocalDateTime getBookingDate() {
+        return bookingDate;
+    }
+    
+    public Integer getBookingId() {
+        return bookingId;
+    }
+    
+    public String encode() {
+        String raw = bookingDate + SEPARATOR + bookingId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    public static BookingCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            return new BookingCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    Integer.valueOf(raw.substring(separator + 1)));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            // NumberFormatException is an IllegalArgumentException as well
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+}
@@ -1,11 +1,15 @@
 package com.rental.util;
 
+import com.rental.config.JwtProperties;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.ProtectedHeader;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
@@ -15,20 +19,67 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.function.Function;
 
+/**
+ * Issues and verifies JWTs.
+ * Keys and the parser are built once at startup and never change, so a single instance is
+ * safe to share across request threads. Tokens with a {@code kid} header are verified with
+ * the matching configured key; tokens without one use the legacy secret, unless legacy
+ * tokens are no longer accepted.
+ */
 @Component
 public class JwtUtil {
     
     private static final Logger logger = LoggerFactory.getLogger(JwtUtil.class);
     
-    @Value("${spring.security.jwt.secret}")
-    private String secret;
+    private final long expiration;
+    private final SecretKey legacyKey;
+    private final Map<String, SecretKey> keysById;
+    private final String activeKeyId;
+    private final JwtParser parser;
     
-    @Value("${spring.security.jwt.expiration}")
-    private Long expiration;
+    public JwtUtil(JwtProperties properties) {
+        this.expiration = properties.getExpiration();
+        boolean acceptLegacyTokens = properties.isAcceptLegacyTokens();
+        String legacySecret = properties.getSecret();
+        this.legacyKey = legacySecret != null && !legacySecret.isBlank() ? toKey(legacySecret) : null;
+        
+        Map<String, SecretKey> keys = new HashMap<>();
+        properties.getKeys().forEach((kid, secret) -> keys.put(kid, toKey(secret)));
+        this.keysById = Map.copyOf(keys);
+        
+        String kid = properties.getActiveKeyId();
+        this.activeKeyId = kid != null && !kid.isBlank() ? kid : null;
+        if (activeKeyId != null && !keysById.containsKey(activeKeyId)) {
+            throw new IllegalStateException("JWT active key id '" + activeKeyId + "' has no configured key");
+        }
+        if (activeKeyId == null && (!acceptLegacyTokens || legacyKey == null)) {
+            throw new IllegalStateException("JWT needs an active key id when there is no legacy secret or legacy tokens are not accepted");
+        }
+        
+        this.parser = Jwts.parser()
+                .keyLocator(header -> {
+                    String headerKid = header instanceof ProtectedHeader protectedHeader
+                            ? protectedHeader.getKeyId() : null;
+                    if (headerKid == null) {
+                        if (!acceptLegacyTokens || legacyKey == null) {
+                            throw new SignatureException("JWT without a key id is no longer accepted");
+                        }
+                        return legacyKey;
+                    }
+                    SecretKey key = keysById.get(headerKid);
+                    if (key == null) {
+                        throw new SignatureException("Unknown JWT key id: " + headerKid);
+                    }
+                    return key;
+                })
+                .build();
+        logger.info("JWT keys initialised: {} rotating key(s), signing with {}, legacy tokens {}", 
+                keysById.size(), activeKeyId != null ? "key id '" + activeKeyId + "'" : "the legacy secret",
+                acceptLegacyTokens ? "accepted" : "rejected");
+    }
     
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private static SecretKey toKey(String secret) {
+        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
     }
     
     public String generateToken(String email, Integer userId, String roleName) {
@@ -42,13 +93,18 @@ public class JwtUtil {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + expiration);
         
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
                 .claims(claims)
                 .subject(subject)
                 .issuedAt(now)
-                .expiration(expiryDate)
-                .signWith(getSigningKey())
-                .compact();
+                .expiration(expiryDate);
+        if (activeKeyId != null) {
+            builder.header().keyId(activeKeyId).and()
+                    .signWith(keysById.get(activeKeyId));
+        } else {
+            builder.signWith(legacyKey);
+        }
+        return builder.compact();
     }
     
     public String extractEmail(String token) {
@@ -75,11 +131,24 @@ public class JwtUtil {
     }
     
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return parser.parseSignedClaims(token).getPayload();
+    }
+    
+    /**
+     * Verifies the signature and expiry of a token with a single parse and returns the
+     * identity it carries, or null when the token is invalid or expired.
+     */
+    public VerifiedToken verifyToken(String token) {
+        try {
+            Claims claims = extractAllClaims(token);
+            return new VerifiedToken(claims.getSubject(),
+                    claims.get("userId", Integer.class),
+                    claims.get("roleName", String.class),
+                    claims.getExpiration().toInstant());
+        } catch (Exception e) {
+            logger.debug("Token validation failed: {}", e.getMessage());
+            return null;
+        }
     }
     
     private Boolean isTokenExpired(String token) {
@@ -105,4 +174,3 @@ public class JwtUtil {
         }
     }
 }
-
@@ -0,0 +1,33 @@
+package com.rental.util;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Feeds every statement Hibernate prepares to the {@link QueryCounter}; the SQL is not changed.
+ * Covers JPQL, criteria, native queries and lazy loads. Plain JDBC (JdbcTemplate) bypasses it.
+ * Optionally logs a random sample of statements, which gives a picture of production SQL
+ * without the cost of logging every statement through org.hibernate.SQL.
+ */
+public class QueryCountInspector implements StatementInspector {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryCountInspector.class);
+
+    private final double sampleRate;
+
+    public QueryCountInspector(double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        QueryCounter.record(sql);
+        if (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            logger.info("Sampled SQL: {}", sql);
+        }
+        return sql;
+    }
+}
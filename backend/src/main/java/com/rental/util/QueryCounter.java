@@ -0,0 +1,171 @@
+package com.rental.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread.
+ * Counting only happens inside a {@link Scope}: the {@code QueryCountFilter} opens one per
+ * HTTP request, and tests can open their own to pin the query count of an operation:
+ * <pre>
+ * try (QueryCounter.Scope queries = QueryCounter.start()) {
+ *     bookingService.getAllBookings(new BookingSearchCriteria(), null, 20);
+ *     queries.assertCount(4);
+ * }
+ * </pre>
+ * Statements run on other threads (async tasks, the hashing pool) are not counted.
+ */
+public final class QueryCounter {
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+    private static final String UNKNOWN_CALL_SITE = "unknown";
+    private static final int MAX_SQL_LENGTH = 200;
+
+    private static volatile boolean captureCallSites = true;
+
+    private QueryCounter() {
+    }
+
+    /**
+     * Starts counting on the current thread. Scopes nest; a statement counts towards every
+     * open scope.
+     */
+    public static Scope start() {
+        Scope scope = new Scope(CURRENT.get());
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    /**
+     * Whether each statement records the application frame that issued it. Costs a partial
+     * stack walk per statement; without it statements are only grouped by SQL.
+     */
+    public static void setCaptureCallSites(boolean capture) {
+        captureCallSites = capture;
+    }
+
+    static void record(String sql) {
+        Scope scope = CURRENT.get();
+        if (scope == null) {
+            return;
+        }
+        String callSite = captureCallSites ? callSite() : UNKNOWN_CALL_SITE;
+        for (Scope open = scope; open != null; open = open.parent) {
+            open.add(callSite, sql);
+        }
+    }
+
+    /**
+     * First application frame below the statement, skipping entities (lazy loading) and
+     * generated proxies, so lazy loads are attributed to the code that touched the association.
+     */
+    private static String callSite() {
+        return STACK_WALKER.walk(frames -> frames
+                .filter(frame -> {
+                    String className = frame.getClassName();
+                    return className.startsWith("com.rental.")
+                            && !className.startsWith("com.rental.util.QueryCount")
+                            && !className.startsWith("com.rental.entity.")
+                            && !className.contains("$$");
+                })
+                .findFirst()
+                .map(frame -> frame.getClassName().substring(frame.getClassName().lastIndexOf('.') + 1)
+                        + "." + frame.getMethodName() + "(" + frame.getFileName() + ":" + frame.getLineNumber() + ")")
+                .orElse(UNKNOWN_CALL_SITE));
+    }
+
+    public static final class Scope implements AutoCloseable {
+
+        private final Scope parent;
+        private final Map<StatementKey, Integer> statements = new HashMap<>();
+        private int count;
+
+        private Scope(Scope parent) {
+            this.parent = parent;
+        }
+
+        private void add(String callSite, String sql) {
+            count++;
+            statements.merge(new StatementKey(callSite, sql), 1, Integer::sum);
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        /**
+         * Distinct statements with how often each ran, most frequent first.
+         */
+        public List<StatementCount> getStatements() {
+            List<StatementCount> result = new ArrayList<>(statements.size());
+            statements.forEach((key, times) -> result.add(new StatementCount(key.callSite(), key.sql(), times)));
+            result.sort(Comparator.comparingInt(StatementCount::count).reversed());
+            return result;
+        }
+
+        /**
+         * Statements issued at least threshold times from the same call site: the signature
+         * of an N+1 (one query per row of an earlier result).
+         */
+        public List<StatementCount> getRepeatedStatements(int threshold) {
+            return getStatements().stream()
+                    .filter(statement -> statement.count() >= threshold)
+                    .toList();
+        }
+
+        public void assertCount(int expected) {
+            if (count != expected) {
+                throw new AssertionError(String.format("Expected %d SQL statement(s) but %d were executed:%n%s",
+                        expected, count, describe(Integer.MAX_VALUE)));
+            }
+        }
+
+        public void assertAtMost(int max) {
+            if (count > max) {
+                throw new AssertionError(String.format("Expected at most %d SQL statement(s) but %d were executed:%n%s",
+                        max, count, describe(Integer.MAX_VALUE)));
+            }
+        }
+
+        /**
+         * One line per distinct statement ("times x call site: sql"), most frequent first.
+         */
+        public String describe(int limit) {
+            StringBuilder description = new StringBuilder();
+            List<StatementCount> all = getStatements();
+            all.stream().limit(limit).forEach(statement -> description
+                    .append(String.format("  %d x %s: %s%n", statement.count(), statement.callSite(), statement.shortSql())));
+            if (all.size() > limit) {
+                description.append(String.format("  ... %d more distinct statement(s)%n", all.size() - limit));
+            }
+            return description.toString();
+        }
+
+        @Override
+        public void close() {
+            if (parent != null) {
+                CURRENT.set(parent);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    public record StatementCount(String callSite, String sql, int count) {
+
+        /**
+         * The SQL on one line, cut to a readable length.
+         */
+        public String shortSql() {
+            String singleLine = sql.replaceAll("\\s+", " ").trim();
+            return singleLine.length() > MAX_SQL_LENGTH ? singleLine.substring(0, MAX_SQL_LENGTH) + "..." : singleLine;
+        }
+    }
+
+    private record StatementKey(String callSite, String sql) {
+    }
+}
@@ -0,0 +1,72 @@
+package com.rental.util;
+
+/**
+ * Invalidation counters for read-through caches, in a fixed number of stripes rather than
+ * one entry per key, so looking up IDs that do not exist (or were deleted) never grows them.
+ * A loader reads its key's generation before loading and stores the result only if the
+ * generation is unchanged; an invalidation bumps it. Keys sharing a stripe only cost an
+ * occasional load that is returned without being stored.
+ */
+public final class StripedGenerations {
+
+    private final long[] generations;
+    private final Object[] locks;
+    private final int mask;
+
+    /**
+     * @param stripes number of counters, rounded up to a power of two
+     */
+    public StripedGenerations(int stripes) {
+        if (stripes < 1) {
+            throw new IllegalArgumentException("At least one stripe is required");
+        }
+        int size = Integer.highestOneBit(stripes - 1) << 1;
+        size = Math.max(1, size);
+        this.generations = new long[size];
+        this.locks = new Object[size];
+        for (int i = 0; i < size; i++) {
+            locks[i] = new Object();
+        }
+        this.mask = size - 1;
+    }
+
+    public long current(int key) {
+        int stripe = stripe(key);
+        synchronized (locks[stripe]) {
+            return generations[stripe];
+        }
+    }
+
+    /**
+     * Runs the action while holding the key's stripe, if no invalidation happened since the
+     * generation was read. Returns whether it ran.
+     */
+    public boolean runIfCurrent(int key, long generation, Runnable action) {
+        int stripe = stripe(key);
+        synchronized (locks[stripe]) {
+            if (generations[stripe] != generation) {
+                return false;
+            }
+            action.run();
+            return true;
+        }
+    }
+
+    /**
+     * Bumps the key's generation and runs the action (dropping the cached value) under the
+     * same lock, so a concurrent {@link #runIfCurrent} sees either both or neither.
+     */
+    public void invalidate(int key, Runnable action) {
+        int stripe = stripe(key);
+        synchronized (locks[stripe]) {
+            generations[stripe]++;
+            action.run();
+        }
+    }
+
+    private int stripe(int key) {
+        // Spread the bits so nearby IDs and IDs a stripe count apart land on different stripes
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+}
@@ -0,0 +1,49 @@
+package com.rental.util;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free token bucket: holds up to capacity tokens and gains one every refill period.
+ * The state (tokens, last update) is one immutable value swapped with compare-and-set,
+ * so concurrent requests for the same key never block each other; a request that loses
+ * the race simply recomputes from the new state.
+ */
+public final class TokenBucket {
+
+    private final int capacity;
+    private final double nanosPerToken;
+    private final AtomicReference<State> state;
+
+    public TokenBucket(int capacity, Duration refillPeriod, long nowNanos) {
+        if (capacity < 1 || refillPeriod.isZero() || refillPeriod.isNegative()) {
+            throw new IllegalArgumentException("Token bucket needs a positive capacity and refill period");
+        }
+        this.capacity = capacity;
+        this.nanosPerToken = refillPeriod.toNanos();
+        this.state = new AtomicReference<>(new State(capacity, nowNanos));
+    }
+
+    /**
+     * Takes one token. Returns 0 when granted, otherwise the nanoseconds until a token
+     * will be available.
+     */
+    public long tryConsume(long nowNanos) {
+        while (true) {
+            State current = state.get();
+            // Another thread may have stored a slightly later timestamp; never refill backwards
+            long elapsed = Math.max(0, nowNanos - current.updatedAt());
+            double tokens = Math.min(capacity, current.tokens() + elapsed / nanosPerToken);
+            if (tokens < 1) {
+                return (long) Math.ceil((1 - tokens) * nanosPerToken);
+            }
+            State next = new State(tokens - 1, Math.max(nowNanos, current.updatedAt()));
+            if (state.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    private record State(double tokens, long updatedAt) {
+    }
+}
@@ -0,0 +1,41 @@
+package com.rental.util;
+
+import java.time.Instant;
+
+/**
+ * Identity extracted from a JWT whose signature and expiry have been checked.
+ */
+public final class VerifiedToken {
+
+    private final String email;
+    private final Integer userId;
+    private final String roleName;
+    private final Instant expiresAt;
+
+    public VerifiedToken(String email, Integer userId, String roleName, Instant expiresAt) {
+        this.email = email;
+        this.userId = userId;
+        this.roleName = roleName;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public Integer getUserId() {
+        return userId;
+    }
+
+    public String getRoleName() {
+        return roleName;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public boolean isExpired(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+}
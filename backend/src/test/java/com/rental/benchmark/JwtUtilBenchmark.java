@@ -0,0 +1,98 @@
+package com.rental.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import com.rental.config.JwtProperties;
+import com.rental.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Issuing and verifying a token with {@link JwtUtil}, whose keys and parser (with its kid
+ * key locator) are built once, against the previous approach of deriving the key and
+ * building a parser on every call ({@code *PerCall}). Run with {@code -prof gc} to compare
+ * allocations as well.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtUtilBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-with-at-least-256-bits-of-entropy";
+    private static final long EXPIRATION = TimeUnit.HOURS.toMillis(1);
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        ((LoggerContext) LoggerFactory.getILoggerFactory()).getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)
+                .setLevel(Level.INFO);
+
+        JwtProperties properties = new JwtProperties();
+        properties.setSecret(SECRET);
+        properties.setExpiration(EXPIRATION);
+        jwtUtil = new JwtUtil(properties);
+        token = jwtUtil.generateToken("user@example.com", 1, "ADMIN");
+    }
+
+    @Benchmark
+    public String issueCached() {
+        return jwtUtil.generateToken("user@example.com", 1, "ADMIN");
+    }
+
+    @Benchmark
+    public String issuePerCall() {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("userId", 1);
+        claims.put("roleName", "ADMIN");
+        Date now = new Date();
+        return Jwts.builder()
+                .claims(claims)
+                .subject("user@example.com")
+                .issuedAt(now)
+                .expiration(new Date(now.getTime() + EXPIRATION))
+                .signWith(signingKey())
+                .compact();
+    }
+
+    @Benchmark
+    public Object verifyCached() {
+        return jwtUtil.verifyToken(token);
+    }
+
+    @Benchmark
+    public Claims verifyPerCall() {
+        return Jwts.parser()
+                .verifyWith(signingKey())
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    private static SecretKey signingKey() {
+        return Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+    }
+}
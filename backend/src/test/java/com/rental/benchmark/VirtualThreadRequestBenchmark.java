@@ -0,0 +1,126 @@
+package com.rental.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rental.filter.ConnectionPoolConcurrencyFilter;
+import jakarta.servlet.Filter;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request latency (p50/p99 in the sample-time histogram) and throughput of JDBC-bound
+ * requests served by platform threads versus virtual threads behind the
+ * {@link ConnectionPoolConcurrencyFilter}. Each JMH thread is one client sending requests
+ * back to back; a request waits on I/O outside the database, then holds one of the
+ * pool's connections for the length of a query.
+ * <p>
+ * The platform mode mirrors Tomcat's default of 200 worker threads. The connection pool
+ * is a fair semaphore with Hikari's default 30 s wait, so requests queue for connections
+ * the way they do in HikariCP. This models the thread and pool behaviour only; it does
+ * not exercise Tomcat, Hibernate or PostgreSQL.
+ */
+@BenchmarkMode({Mode.SampleTime, Mode.Throughput})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@Threads(400)
+@State(Scope.Benchmark)
+public class VirtualThreadRequestBenchmark {
+
+    private static final int TOMCAT_MAX_THREADS = 200;
+
+    @Param({"platform", "virtual"})
+    private String threads;
+
+    @Param("10")
+    private int poolSize;
+
+    @Param("4")
+    private int permitsPerConnection;
+
+    // Time spent blocked outside the database (other queries' round trips, remote calls)
+    @Param("5")
+    private long ioMillis;
+
+    // Time a connection is held per request
+    @Param("2")
+    private long queryMillis;
+
+    private ExecutorService executor;
+    private Filter limiter;
+    private HttpServlet endpoint;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Semaphore connections = new Semaphore(poolSize, true);
+        endpoint = new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) {
+                try {
+                    Thread.sleep(ioMillis);
+                    if (!connections.tryAcquire(30, TimeUnit.SECONDS)) {
+                        response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+                        return;
+                    }
+                    try {
+                        Thread.sleep(queryMillis);
+                    } finally {
+                        connections.release();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        if ("virtual".equals(threads)) {
+            executor = Executors.newVirtualThreadPerTaskExecutor();
+            limiter = new ConnectionPoolConcurrencyFilter(new ObjectMapper(), poolSize, permitsPerConnection,
+                    Duration.ofSeconds(2));
+        } else {
+            executor = Executors.newFixedThreadPool(TOMCAT_MAX_THREADS);
+            limiter = null;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public int request() throws Exception {
+        return executor.submit(() -> {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/bookings");
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            MockFilterChain chain = limiter != null
+                    ? new MockFilterChain(endpoint, limiter)
+                    : new MockFilterChain(endpoint);
+            chain.doFilter(request, response);
+            return response.getStatus();
+        }).get();
+    }
+}
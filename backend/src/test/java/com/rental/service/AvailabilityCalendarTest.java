@@ -0,0 +1,103 @@
+package com.rental.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AvailabilityCalendarTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 6, 10);
+
+    @Test
+    void emptyCalendarHasEverythingFree() {
+        AvailabilityCalendar calendar = AvailabilityCalendar.builder(5).build();
+
+        assertThat(calendar.getCapacity()).isEqualTo(5);
+        assertThat(calendar.maxReserved(DAY, DAY.plusDays(30))).isZero();
+        assertThat(calendar.freeUnits(DAY, DAY.plusDays(30))).isEqualTo(5);
+    }
+
+    @Test
+    void takesThePeakOfOverlappingReservations() {
+        // 2 units on 10-14, 3 units on 12-16: the peak is 5 on 12-14
+        AvailabilityCalendar calendar = AvailabilityCalendar.builder(10)
+                .reserve(DAY, DAY.plusDays(4), 2)
+                .reserve(DAY.plusDays(2), DAY.plusDays(6), 3)
+                .build();
+
+        assertThat(calendar.maxReserved(DAY, DAY.plusDays(1))).isEqualTo(2);
+        assertThat(calendar.maxReserved(DAY, DAY.plusDays(2))).isEqualTo(5);
+        assertThat(calendar.maxReserved(DAY.plusDays(3), DAY.plusDays(3))).isEqualTo(5);
+        assertThat(calendar.maxReserved(DAY.plusDays(5), DAY.plusDays(6))).isEqualTo(3);
+        assertThat(calendar.freeUnits(DAY.minusDays(5), DAY.plusDays(20))).isEqualTo(5);
+    }
+
+    @Test
+    void endDateIsInclusive() {
+        AvailabilityCalendar calendar = AvailabilityCalendar.builder(4)
+                .reserve(DAY, DAY.plusDays(2), 4)
+                .build();
+
+        assertThat(calendar.freeUnits(DAY.plusDays(2), DAY.plusDays(2))).isZero();
+        assertThat(calendar.freeUnits(DAY.plusDays(3), DAY.plusDays(5))).isEqualTo(4);
+        assertThat(calendar.freeUnits(DAY.minusDays(3), DAY.minusDays(1))).isEqualTo(4);
+    }
+
+    @Test
+    void rangeStartingInsideAReservationSeesIt() {
+        AvailabilityCalendar calendar = AvailabilityCalendar.builder(4)
+                .reserve(DAY, DAY.plusDays(10), 1)
+                .build();
+
+        assertThat(calendar.maxReserved(DAY.plusDays(5), DAY.plusDays(6))).isEqualTo(1);
+    }
+
+    @Test
+    void ignoresInvalidReservations() {
+        AvailabilityCalendar calendar = AvailabilityCalendar.builder(3)
+                .reserve(null, DAY, 1)
+                .reserve(DAY, null, 1)
+                .reserve(DAY, DAY.plusDays(1), 0)
+                .reserve(DAY.plusDays(1), DAY, 1)
+                .build();
+
+        assertThat(calendar.maxReserved(DAY.minusDays(1), DAY.plusDays(2))).isZero();
+    }
+
+    @Test
+    void overbookingNeverReportsNegativeFreeUnits() {
+        AvailabilityCalendar calendar = AvailabilityCalendar.builder(2)
+                .reserve(DAY, DAY, 3)
+                .build();
+
+        assertThat(calendar.freeUnits(DAY, DAY)).isZero();
+    }
+
+    @Test
+    void openEndedReservationHoldsUnitsForEveryLaterDay() {
+        AvailabilityCalendar calendar = AvailabilityCalendar.builder(3)
+                .reserve(DAY.plusDays(7), DAY.plusDays(8), 2)
+                .reserveFrom(DAY, 1)
+                .build();
+
+        assertThat(calendar.freeUnits(DAY.minusDays(1), DAY.minusDays(1))).isEqualTo(3);
+        assertThat(calendar.freeUnits(DAY, DAY.plusDays(6))).isEqualTo(2);
+        assertThat(calendar.freeUnits(DAY.plusDays(7), DAY.plusDays(7))).isZero();
+        assertThat(calendar.freeUnits(DAY.plusDays(365), DAY.plusDays(365))).isEqualTo(2);
+    }
+
+    @Test
+    void freeUnitsFromChecksEveryDayAfterTheStart() {
+        AvailabilityCalendar calendar = AvailabilityCalendar.builder(4)
+                .reserve(DAY.minusDays(3), DAY.minusDays(1), 4)
+                .reserve(DAY.plusDays(30), DAY.plusDays(31), 3)
+                .reserveFrom(null, 1)
+                .reserveFrom(DAY, 0)
+                .build();
+
+        assertThat(calendar.freeUnitsFrom(DAY)).isEqualTo(1);
+        assertThat(calendar.freeUnitsFrom(DAY.plusDays(32))).isEqualTo(4);
+    }
+}
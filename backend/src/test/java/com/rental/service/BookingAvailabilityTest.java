@@ -0,0 +1,225 @@
+package com.rental.service;
+
+import com.rental.dto.request.BookingRequest;
+import com.rental.dto.request.ReturnRequest;
+import com.rental.entity.CustomerMaster;
+import com.rental.entity.Inventory;
+import com.rental.entity.Product;
+import com.rental.entity.ProductSize;
+import com.rental.entity.ProductVariant;
+import com.rental.exception.InsufficientInventoryException;
+import com.rental.repository.CustomerMasterRepository;
+import com.rental.repository.InventoryRepository;
+import com.rental.repository.ProductRepository;
+import com.rental.repository.ProductSizeRepository;
+import com.rental.repository.ProductVariantRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Stock and date-range reservations for the same variant against PostgreSQL: units sold or
+ * rented without dates must not take capacity already promised to dated rentals, and returns
+ * move the end of a dated rental to the day the units came back. Needs Docker; skipped without it.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        // The repository only ships incremental migrations, so the schema comes from the entities
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.hbm2ddl.create_namespaces=true",
+        "audit.enabled=false",
+        "outbox.relay.enabled=false",
+        "overdue.scan.enabled=false"
+})
+@Testcontainers(disabledWithoutDocker = true)
+class BookingAvailabilityTest {
+
+    private static final LocalDate NEXT_WEEK = LocalDate.now().plusWeeks(1);
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private AvailabilityService availabilityService;
+
+    @Autowired
+    private ReturnService returnService;
+
+    @Autowired
+    private CustomerMasterRepository customerRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductSizeRepository sizeRepository;
+
+    @Autowired
+    private ProductVariantRepository variantRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void saleCannotTakeUnitsPromisedToAFutureRental() {
+        Integer customerId = customer();
+        Integer variantId = variantWithStock(2);
+        bookingService.createBooking(rental(customerId, variantId, 2, NEXT_WEEK, NEXT_WEEK.plusDays(2)));
+
+        assertThatThrownBy(() -> bookingService.createBooking(booking(customerId, "SALE", variantId, 1)))
+                .isInstanceOf(InsufficientInventoryException.class);
+        assertThatThrownBy(() -> bookingService.createBooking(booking(customerId, "RENT", variantId, 1)))
+                .isInstanceOf(InsufficientInventoryException.class);
+        assertThat(availableQuantity(variantId)).isEqualTo(2);
+    }
+
+    @Test
+    void saleMayTakeUnitsNoDatedRentalNeeds() {
+        Integer customerId = customer();
+        Integer variantId = variantWithStock(3);
+        bookingService.createBooking(rental(customerId, variantId, 2, NEXT_WEEK, NEXT_WEEK.plusDays(2)));
+
+        bookingService.createBooking(booking(customerId, "SALE", variantId, 1));
+
+        assertThat(availableQuantity(variantId)).isEqualTo(2);
+        assertThat(freeUnits(variantId, NEXT_WEEK)).isZero();
+        assertThatThrownBy(() -> bookingService.createBooking(booking(customerId, "SALE", variantId, 1)))
+                .isInstanceOf(InsufficientInventoryException.class);
+    }
+
+    @Test
+    void datedRentalCannotTakeUnitsSoldInTheSameBooking() {
+        Integer customerId = customer();
+        Integer variantId = variantWithStock(2);
+        BookingRequest request = booking(customerId, "RENT", variantId, 1);
+        request.getItems().add(item(variantId, 2, NEXT_WEEK, NEXT_WEEK.plusDays(1)));
+
+        assertThatThrownBy(() -> bookingService.createBooking(request))
+                .isInstanceOf(InsufficientInventoryException.class);
+        assertThat(availableQuantity(variantId)).isEqualTo(2);
+    }
+
+    @Test
+    void overdueRentalKeepsItsUnitsUntilReturned() {
+        Integer customerId = customer();
+        Integer variantId = variantWithStock(2);
+        LocalDate today = LocalDate.now();
+        Integer bookingId = bookingService.createBooking(
+                rental(customerId, variantId, 1, today.minusDays(10), today.minusDays(3))).getBookingId();
+
+        assertThat(freeUnits(variantId, NEXT_WEEK)).isEqualTo(1);
+        assertThat(freeUnits(variantId, NEXT_WEEK.plusYears(1))).isEqualTo(1);
+
+        returnService.processReturn(bookingId, returnOf(variantId, 1, today));
+
+        assertThat(freeUnits(variantId, NEXT_WEEK)).isEqualTo(2);
+    }
+
+    @Test
+    void earlyReturnFreesTheRemainingDays() {
+        Integer customerId = customer();
+        Integer variantId = variantWithStock(2);
+        LocalDate today = LocalDate.now();
+        Integer bookingId = bookingService.createBooking(
+                rental(customerId, variantId, 2, today.minusDays(1), NEXT_WEEK)).getBookingId();
+        assertThat(freeUnits(variantId, NEXT_WEEK)).isZero();
+
+        returnService.processReturn(bookingId, returnOf(variantId, 2, today));
+
+        assertThat(freeUnits(variantId, today)).isZero();
+        assertThat(freeUnits(variantId, today.plusDays(1))).isEqualTo(2);
+        bookingService.createBooking(rental(customerId, variantId, 2, today.plusDays(1), NEXT_WEEK));
+    }
+
+    private int freeUnits(Integer variantId, LocalDate day) {
+        return availabilityService.getAvailability(variantId, day, day).getAvailableQuantity();
+    }
+
+    private static ReturnRequest returnOf(Integer variantId, int quantity, LocalDate returnDate) {
+        ReturnRequest.ReturnItemRequest item = new ReturnRequest.ReturnItemRequest();
+        item.setVariantId(variantId);
+        item.setQuantity(quantity);
+        ReturnRequest request = new ReturnRequest();
+        request.setReturnDate(returnDate);
+        request.setItems(List.of(item));
+        return request;
+    }
+
+    private Integer customer() {
+        CustomerMaster customer = new CustomerMaster();
+        customer.setCustomerName("Availability customer");
+        return customerRepository.save(customer).getCustomerId();
+    }
+
+    private Integer variantWithStock(int quantity) {
+        return transactionTemplate.execute(status -> {
+            ProductSize size = new ProductSize();
+            size.setSizeCode(UUID.randomUUID().toString().substring(0, 8));
+            sizeRepository.save(size);
+            Product product = new Product();
+            product.setProductName("Sherwani");
+            productRepository.save(product);
+            ProductVariant variant = new ProductVariant();
+            variant.setProduct(product);
+            variant.setSize(size);
+            variantRepository.save(variant);
+            Inventory inventory = new Inventory();
+            inventory.setVariant(variant);
+            inventory.setAvailableQuantity(quantity);
+            inventory.setAvailabilityStatus("AVAILABLE");
+            inventoryRepository.save(inventory);
+            return variant.getVariantId();
+        });
+    }
+
+    private int availableQuantity(Integer variantId) {
+        return inventoryRepository.findByVariantVariantId(variantId).orElseThrow().getAvailableQuantity();
+    }
+
+    private static BookingRequest rental(Integer customerId, Integer variantId, int quantity, LocalDate start, LocalDate end) {
+        BookingRequest request = booking(customerId, "RENT", variantId, quantity);
+        request.getItems().get(0).setRentalStart(start);
+        request.getItems().get(0).setRentalEnd(end);
+        return request;
+    }
+
+    private static BookingRequest booking(Integer customerId, String type, Integer variantId, int quantity) {
+        BookingRequest request = new BookingRequest();
+        request.setCustomerId(customerId);
+        request.setBookingType(type);
+        request.setStatus("CONFIRMED");
+        request.setItems(new ArrayList<>(List.of(item(variantId, quantity, null, null))));
+        return request;
+    }
+
+    private static BookingRequest.BookingItemRequest item(Integer variantId, int quantity, LocalDate start, LocalDate end) {
+        BookingRequest.BookingItemRequest item = new BookingRequest.BookingItemRequest();
+        item.setVariantId(variantId);
+        item.setQuantity(quantity);
+        item.setUnitPrice(BigDecimal.TEN);
+        item.setSubtotal(BigDecimal.TEN.multiply(BigDecimal.valueOf(quantity)));
+        item.setRentalStart(start);
+        item.setRentalEnd(end);
+        return item;
+    }
+}
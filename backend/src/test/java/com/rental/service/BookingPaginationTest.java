@@ -0,0 +1,127 @@
+package com.rental.service;
+
+import com.rental.dto.request.BookingSearchCriteria;
+import com.rental.dto.response.BookingResponse;
+import com.rental.dto.response.CursorPage;
+import com.rental.entity.Booking;
+import com.rental.entity.CustomerMaster;
+import com.rental.repository.BookingRepository;
+import com.rental.repository.CustomerMasterRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Walks the keyset-paginated booking list page by page and checks that it returns every
+ * matching booking exactly once, newest first, including bookings that share a booking
+ * date. Needs Docker; skipped without it.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        // The repository only ships incremental migrations, so the schema comes from the entities
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.hbm2ddl.create_namespaces=true",
+        "audit.enabled=false",
+        "outbox.relay.enabled=false",
+        "overdue.scan.enabled=false"
+})
+@Testcontainers(disabledWithoutDocker = true)
+class BookingPaginationTest {
+
+    private static final String PAGING_CUSTOMER = "Paging customer";
+    private static final LocalDateTime TIED_DATE = LocalDateTime.of(2024, 3, 1, 10, 0);
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private CustomerMasterRepository customerRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void seed() {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (customerRepository.findAll().stream()
+                    .anyMatch(existing -> PAGING_CUSTOMER.equals(existing.getCustomerName()))) {
+                return;
+            }
+            CustomerMaster customer = new CustomerMaster();
+            customer.setCustomerName(PAGING_CUSTOMER);
+            customerRepository.save(customer);
+            for (int i = 0; i < 23; i++) {
+                Booking booking = new Booking();
+                booking.setCustomer(customer);
+                booking.setBookingType(i % 2 == 0 ? "RENT" : "SALE");
+                booking.setStatus(i % 3 == 0 ? "CANCELLED" : "CONFIRMED");
+                booking.setTotalAmount(BigDecimal.TEN);
+                bookingRepository.save(booking);
+            }
+        });
+        // booking_date is not updatable through JPA; put a run of bookings on the same instant
+        // and spread the rest out so page boundaries fall inside the tie
+        jdbcTemplate.update("UPDATE rental_management.booking SET booking_date = ? WHERE booking_id % 3 <> 0",
+                Timestamp.valueOf(TIED_DATE));
+        jdbcTemplate.update("UPDATE rental_management.booking SET booking_date = CAST(? AS timestamp) + booking_id * INTERVAL '1 hour' "
+                + "WHERE booking_id % 3 = 0", Timestamp.valueOf(TIED_DATE));
+    }
+
+    @Test
+    void walksEveryBookingOnceNewestFirst() {
+        List<Integer> expected = jdbcTemplate.queryForList(
+                "SELECT booking_id FROM rental_management.booking ORDER BY booking_date DESC, booking_id DESC",
+                Integer.class);
+
+        assertThat(walk(new BookingSearchCriteria(), 4)).containsExactlyElementsOf(expected);
+        assertThat(walk(new BookingSearchCriteria(), expected.size())).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void pagesThroughFilteredResults() {
+        List<Integer> expected = jdbcTemplate.queryForList(
+                "SELECT booking_id FROM rental_management.booking WHERE status = 'CONFIRMED' AND booking_type = 'RENT' "
+                        + "ORDER BY booking_date DESC, booking_id DESC",
+                Integer.class);
+        BookingSearchCriteria criteria = new BookingSearchCriteria("CONFIRMED", "RENT", null, null, null);
+
+        assertThat(expected).isNotEmpty();
+        assertThat(walk(criteria, 3)).containsExactlyElementsOf(expected);
+    }
+
+    private List<Integer> walk(BookingSearchCriteria criteria, int limit) {
+        List<Integer> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<BookingResponse> page = bookingService.getAllBookings(criteria, cursor, limit);
+            assertThat(page.getItems()).hasSizeLessThanOrEqualTo(limit);
+            page.getItems().forEach(booking -> ids.add(booking.getBookingId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return ids;
+    }
+}
@@ -0,0 +1,155 @@
+package com.rental.service;
+
+import com.rental.dto.request.BookingSearchCriteria;
+import com.rental.entity.Booking;
+import com.rental.entity.BookingItem;
+import com.rental.entity.CustomerMaster;
+import com.rental.entity.InventoryTransaction;
+import com.rental.entity.Product;
+import com.rental.entity.ProductSize;
+import com.rental.entity.ProductVariant;
+import com.rental.repository.BookingItemRepository;
+import com.rental.repository.BookingRepository;
+import com.rental.repository.CustomerMasterRepository;
+import com.rental.repository.InventoryTransactionRepository;
+import com.rental.repository.ProductRepository;
+import com.rental.repository.ProductSizeRepository;
+import com.rental.repository.ProductVariantRepository;
+import com.rental.util.QueryCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pins the number of statements behind the booking list so an N+1 shows up as a failure
+ * instead of a slow page. Needs Docker; skipped without it.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        // The repository only ships incremental migrations, so the schema comes from the entities
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.hbm2ddl.create_namespaces=true",
+        "audit.enabled=false",
+        "outbox.relay.enabled=false",
+        "overdue.scan.enabled=false"
+})
+@Testcontainers(disabledWithoutDocker = true)
+class BookingQueryCountTest {
+
+    private static final int PAGE_SIZE = 20;
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BookingItemRepository bookingItemRepository;
+
+    @Autowired
+    private InventoryTransactionRepository transactionRepository;
+
+    @Autowired
+    private CustomerMasterRepository customerRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductSizeRepository sizeRepository;
+
+    @Autowired
+    private ProductVariantRepository variantRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void seed() {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (bookingItemRepository.count() > 0) {
+                return;
+            }
+            ProductSize size = new ProductSize();
+            size.setSizeCode("M");
+            sizeRepository.save(size);
+            // A different customer and product per booking, so lazy loads would show up per row
+            for (int i = 0; i < PAGE_SIZE + 5; i++) {
+                seedBooking(i, size);
+            }
+        });
+    }
+
+    @Test
+    void bookingPageRunsAFixedNumberOfStatements() {
+        int singleBooking = countStatements(1);
+        int fullPage = countStatements(PAGE_SIZE);
+
+        assertThat(fullPage).isEqualTo(singleBooking);
+        // Page (with customers), items, transactions and damage records
+        assertThat(fullPage).isEqualTo(4);
+    }
+
+    private int countStatements(int limit) {
+        try (QueryCounter.Scope queries = QueryCounter.start()) {
+            assertThat(bookingService.getAllBookings(new BookingSearchCriteria(), null, limit).getItems())
+                    .hasSize(limit);
+            assertThat(queries.getRepeatedStatements(2)).as(queries.describe(10)).isEmpty();
+            return queries.getCount();
+        }
+    }
+
+    private void seedBooking(int index, ProductSize size) {
+        CustomerMaster customer = new CustomerMaster();
+        customer.setCustomerName("Customer " + index);
+        customerRepository.save(customer);
+
+        Product product = new Product();
+        product.setProductName("Product " + index);
+        productRepository.save(product);
+
+        ProductVariant variant = new ProductVariant();
+        variant.setProduct(product);
+        variant.setSize(size);
+        variantRepository.save(variant);
+
+        Booking booking = new Booking();
+        booking.setCustomer(customer);
+        booking.setBookingType("RENT");
+        booking.setStatus("CONFIRMED");
+        booking.setTotalAmount(new BigDecimal("100.00"));
+        bookingRepository.save(booking);
+
+        BookingItem item = new BookingItem();
+        item.setBooking(booking);
+        item.setVariant(variant);
+        item.setQuantity(1);
+        item.setUnitPrice(new BigDecimal("100.00"));
+        item.setSubtotal(new BigDecimal("100.00"));
+        bookingItemRepository.save(item);
+
+        InventoryTransaction rentOut = new InventoryTransaction();
+        rentOut.setBooking(booking);
+        rentOut.setVariant(variant);
+        rentOut.setTransactionType("RENT_OUT");
+        rentOut.setQuantity(1);
+        rentOut.setExpectedReturnDate(LocalDate.now().plusDays(3));
+        rentOut.setStatus("ACTIVE");
+        transactionRepository.save(rentOut);
+    }
+}
@@ -0,0 +1,90 @@
+package com.rental.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HoldExpiryWheelTest {
+
+    private static final Duration TICK = Duration.ofMillis(10);
+
+    private final Map<Integer, Instant> expiredAt = new ConcurrentHashMap<>();
+    private HoldExpiryWheel wheel;
+
+    @AfterEach
+    void stopWheel() {
+        if (wheel != null) {
+            wheel.stop();
+        }
+    }
+
+    @Test
+    void firesHoldsNoEarlierThanTheirDeadline() throws InterruptedException {
+        CountDownLatch expired = new CountDownLatch(2);
+        wheel = startWheel(8, record(expired));
+        // The wheel works in milliseconds
+        Instant first = Instant.now().truncatedTo(ChronoUnit.MILLIS).plusMillis(50);
+        // Further out than one rotation (8 x 10 ms), so it must survive a lap in its bucket
+        Instant second = first.plusMillis(150);
+        wheel.schedule(1, first);
+        wheel.schedule(2, second);
+
+        assertThat(expired.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(expiredAt.get(1)).isAfterOrEqualTo(first);
+        assertThat(expiredAt.get(2)).isAfterOrEqualTo(second);
+    }
+
+    @Test
+    void firesPastDeadlinesOnTheNextTick() throws InterruptedException {
+        CountDownLatch expired = new CountDownLatch(1);
+        wheel = startWheel(8, record(expired));
+        Thread.sleep(50);
+
+        wheel.schedule(3, Instant.now().minusSeconds(60));
+
+        assertThat(expired.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(expiredAt).containsOnlyKeys(3);
+    }
+
+    @Test
+    void keepsTickingAfterTheCallbackFails() throws InterruptedException {
+        CountDownLatch expired = new CountDownLatch(1);
+        Consumer<List<Integer>> recorder = record(expired);
+        wheel = startWheel(8, holdIds -> {
+            if (holdIds.contains(4)) {
+                throw new IllegalStateException("database unavailable");
+            }
+            recorder.accept(holdIds);
+        });
+
+        wheel.schedule(4, Instant.now());
+        wheel.schedule(5, Instant.now().plusMillis(100));
+
+        assertThat(expired.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(expiredAt).containsOnlyKeys(5);
+    }
+
+    private HoldExpiryWheel startWheel(int size, Consumer<List<Integer>> onExpired) {
+        HoldExpiryWheel started = new HoldExpiryWheel(TICK, size, onExpired);
+        started.start();
+        return started;
+    }
+
+    private Consumer<List<Integer>> record(CountDownLatch latch) {
+        return holdIds -> holdIds.forEach(holdId -> {
+            expiredAt.put(holdId, Instant.now());
+            latch.countDown();
+        });
+    }
+}
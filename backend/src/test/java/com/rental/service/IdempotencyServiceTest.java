@@ -0,0 +1,151 @@
+package com.rental.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rental.exception.IdempotencyKeyMismatchException;
+import com.rental.exception.TooManyRequestsException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IdempotencyServiceTest {
+
+    private static final String SCOPE = "POST /bookings";
+
+    private final IdempotencyService service = new IdempotencyService(new ObjectMapper(),
+            Duration.ofHours(1), 1000, Duration.ofMillis(200));
+    private final AtomicInteger runs = new AtomicInteger();
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void runsWithoutAKeyEveryTime() {
+        service.execute(SCOPE, null, body(1), this::create);
+        service.execute(SCOPE, " ", body(1), this::create);
+
+        assertThat(runs).hasValue(2);
+    }
+
+    @Test
+    void replaysTheStoredResponseForARetry() {
+        ResponseEntity<Integer> first = service.execute(SCOPE, "key-1", body(1), this::create);
+        ResponseEntity<Integer> retry = service.execute(SCOPE, "key-1", body(1), this::create);
+
+        assertThat(runs).hasValue(1);
+        assertThat(retry.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(retry.getBody()).isEqualTo(first.getBody());
+        assertThat(retry.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(first.getHeaders().containsKey(IdempotencyService.REPLAYED_HEADER)).isFalse();
+    }
+
+    @Test
+    void rejectsAKeyReusedWithADifferentBody() {
+        service.execute(SCOPE, "key-1", body(1), this::create);
+
+        assertThatThrownBy(() -> service.execute(SCOPE, "key-1", body(2), this::create))
+                .isInstanceOf(IdempotencyKeyMismatchException.class);
+        assertThat(runs).hasValue(1);
+    }
+
+    @Test
+    void keysAreSeparatePerScopeAndUser() {
+        service.execute(SCOPE, "key-1", body(1), this::create);
+        service.execute("POST /customers", "key-1", body(1), this::create);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("other@example.com", null, List.of()));
+        service.execute(SCOPE, "key-1", body(1), this::create);
+
+        assertThat(runs).hasValue(3);
+    }
+
+    @Test
+    void failedRequestsCanBeRetriedWithTheSameKey() {
+        assertThatThrownBy(() -> service.execute(SCOPE, "key-1", body(1), () -> {
+            throw new IllegalArgumentException("Insufficient stock");
+        })).isInstanceOf(IllegalArgumentException.class);
+
+        ResponseEntity<Integer> retry = service.execute(SCOPE, "key-1", body(1), this::create);
+
+        assertThat(retry.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(runs).hasValue(1);
+    }
+
+    @Test
+    void rejectsOverlongKeys() {
+        assertThatThrownBy(() -> service.execute(SCOPE, "k".repeat(256), body(1), this::create))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void concurrentRetryWaitsForTheFirstRequest() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<ResponseEntity<Integer>> first = CompletableFuture.supplyAsync(() ->
+                service.execute(SCOPE, "key-1", body(1), () -> {
+                    started.countDown();
+                    await(release);
+                    return create();
+                }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<ResponseEntity<Integer>> retry = CompletableFuture.supplyAsync(() ->
+                service.execute(SCOPE, "key-1", body(1), this::create));
+        release.countDown();
+
+        assertThat(retry.get(5, TimeUnit.SECONDS).getBody()).isEqualTo(first.get(5, TimeUnit.SECONDS).getBody());
+        assertThat(runs).hasValue(1);
+    }
+
+    @Test
+    void retryGivesUpWhileTheFirstRequestIsStillRunning() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<ResponseEntity<Integer>> first = CompletableFuture.supplyAsync(() ->
+                service.execute(SCOPE, "key-1", body(1), () -> {
+                    started.countDown();
+                    await(release);
+                    return create();
+                }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        try {
+            assertThatThrownBy(() -> service.execute(SCOPE, "key-1", body(1), this::create))
+                    .isInstanceOf(TooManyRequestsException.class);
+        } finally {
+            release.countDown();
+        }
+        first.get(5, TimeUnit.SECONDS);
+    }
+
+    private ResponseEntity<Integer> create() {
+        return ResponseEntity.status(HttpStatus.CREATED).body(runs.incrementAndGet());
+    }
+
+    private static Map<String, Object> body(int customerId) {
+        return Map.of("customerId", customerId, "bookingType", "RENT");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.rental.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OverdueRentalScannerTest {
+
+    private static final LocalDate EXPECTED_RETURN = LocalDate.of(2024, 3, 1);
+
+    @Test
+    void chargesFromTheEndOfTheGracePeriodOnFirstScan() {
+        assertThat(OverdueRentalScanner.chargedUntil(EXPECTED_RETURN, 2, null))
+                .isEqualTo(LocalDate.of(2024, 3, 3));
+    }
+
+    @Test
+    void continuesFromTheWatermark() {
+        assertThat(OverdueRentalScanner.chargedUntil(EXPECTED_RETURN, 2, LocalDate.of(2024, 3, 10)))
+                .isEqualTo(LocalDate.of(2024, 3, 10));
+    }
+
+    @Test
+    void watermarkInsideTheGracePeriodDoesNotChargeGraceDays() {
+        // e.g. the grace period was extended after an earlier scan
+        assertThat(OverdueRentalScanner.chargedUntil(EXPECTED_RETURN, 5, LocalDate.of(2024, 3, 3)))
+                .isEqualTo(LocalDate.of(2024, 3, 6));
+    }
+
+    @Test
+    void withoutGraceChargingStartsTheDayAfterTheExpectedReturn() {
+        assertThat(OverdueRentalScanner.chargedUntil(EXPECTED_RETURN, 0, null)).isEqualTo(EXPECTED_RETURN);
+    }
+}
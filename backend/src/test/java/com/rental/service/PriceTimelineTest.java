@@ -0,0 +1,69 @@
+package com.rental.service;
+
+import com.rental.service.PriceTimeline.EffectivePrice;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PriceTimelineTest {
+
+    private static final LocalDate JAN_1 = LocalDate.of(2024, 1, 1);
+
+    @Test
+    void emptyTimelineHasNoPrice() {
+        assertThat(PriceTimeline.of(List.of())).isSameAs(PriceTimeline.EMPTY);
+        assertThat(PriceTimeline.EMPTY.priceOn(JAN_1)).isNull();
+    }
+
+    @Test
+    void findsThePriceInEffectOnADate() {
+        EffectivePrice january = price("100", JAN_1, JAN_1.plusDays(30));
+        EffectivePrice february = price("120", JAN_1.plusDays(31), null);
+        PriceTimeline timeline = PriceTimeline.of(List.of(february, january));
+
+        assertThat(timeline.priceOn(JAN_1.minusDays(1))).isNull();
+        assertThat(timeline.priceOn(JAN_1)).isSameAs(january);
+        assertThat(timeline.priceOn(JAN_1.plusDays(30))).isSameAs(january);
+        assertThat(timeline.priceOn(JAN_1.plusDays(31))).isSameAs(february);
+        assertThat(timeline.priceOn(JAN_1.plusYears(5))).isSameAs(february);
+    }
+
+    @Test
+    void latestStartingRangeWinsOnOverlap() {
+        EffectivePrice base = price("100", JAN_1, null);
+        EffectivePrice promotion = price("80", JAN_1.plusDays(10), JAN_1.plusDays(14));
+        PriceTimeline timeline = PriceTimeline.of(List.of(base, promotion));
+
+        assertThat(timeline.priceOn(JAN_1.plusDays(9))).isSameAs(base);
+        assertThat(timeline.priceOn(JAN_1.plusDays(12))).isSameAs(promotion);
+        // After the promotion ends the open-ended base price applies again
+        assertThat(timeline.priceOn(JAN_1.plusDays(15))).isSameAs(base);
+    }
+
+    @Test
+    void newestRowWinsForTheSameStartDate() {
+        EffectivePrice older = price("100", JAN_1, null);
+        EffectivePrice newer = price("110", JAN_1, null);
+        PriceTimeline timeline = PriceTimeline.of(List.of(older, newer));
+
+        assertThat(timeline.priceOn(JAN_1)).isSameAs(newer);
+        assertThat(timeline.priceOn(JAN_1.plusDays(3))).isSameAs(newer);
+    }
+
+    @Test
+    void ignoresRowsWithoutAStartDate() {
+        EffectivePrice undated = price("50", null, null);
+        EffectivePrice dated = price("100", JAN_1, null);
+
+        assertThat(PriceTimeline.of(List.of(undated))).isSameAs(PriceTimeline.EMPTY);
+        assertThat(PriceTimeline.of(List.of(dated, undated)).priceOn(JAN_1)).isSameAs(dated);
+    }
+
+    private static EffectivePrice price(String amount, LocalDate from, LocalDate to) {
+        return new EffectivePrice(new BigDecimal(amount), from, to);
+    }
+}
@@ -0,0 +1,25 @@
+package com.rental.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReservationHoldServiceTest {
+
+    @Test
+    void expiryRetryBackoffDoublesUpToTheMaximum() {
+        ReservationHoldService service = new ReservationHoldService();
+        ReflectionTestUtils.setField(service, "retryInitialBackoff", Duration.ofSeconds(5));
+        ReflectionTestUtils.setField(service, "retryMaxBackoff", Duration.ofMinutes(1));
+
+        assertThat(service.retryBackoff(1)).isEqualTo(Duration.ofSeconds(5));
+        assertThat(service.retryBackoff(2)).isEqualTo(Duration.ofSeconds(10));
+        assertThat(service.retryBackoff(4)).isEqualTo(Duration.ofSeconds(40));
+        assertThat(service.retryBackoff(5)).isEqualTo(Duration.ofMinutes(1));
+        // The shift is capped, so a long outage cannot overflow
+        assertThat(service.retryBackoff(1000)).isEqualTo(Duration.ofMinutes(1));
+    }
+}
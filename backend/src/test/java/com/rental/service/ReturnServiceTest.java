@@ -0,0 +1,96 @@
+package com.rental.service;
+
+import com.rental.entity.InventoryTransaction;
+import com.rental.entity.ProductVariant;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReturnServiceTest {
+
+    private static final LocalDate RETURN_DATE = LocalDate.of(2024, 5, 20);
+    private static final Integer BOOKING_ID = 42;
+
+    @Test
+    void partialReturnLeavesTheRentOutOpen() {
+        InventoryTransaction rentOut = rentOut(3, "ACTIVE");
+
+        int restored = ReturnService.coverRentOuts(List.of(rentOut), 0, 2, RETURN_DATE, BOOKING_ID);
+
+        assertThat(restored).isEqualTo(2);
+        assertThat(rentOut.getStatus()).isEqualTo("ACTIVE");
+        assertThat(rentOut.getActualReturnDate()).isNull();
+    }
+
+    @Test
+    void coversRentOutsOldestFirst() {
+        InventoryTransaction first = rentOut(2, "ACTIVE");
+        InventoryTransaction second = rentOut(2, "ACTIVE");
+
+        ReturnService.coverRentOuts(List.of(first, second), 0, 3, RETURN_DATE, BOOKING_ID);
+
+        assertThat(first.getStatus()).isEqualTo("RETURNED");
+        assertThat(first.getActualReturnDate()).isEqualTo(RETURN_DATE);
+        assertThat(second.getStatus()).isEqualTo("ACTIVE");
+    }
+
+    @Test
+    void skipsUnitsReturnedEarlier() {
+        InventoryTransaction first = rentOut(2, "ACTIVE");
+        InventoryTransaction second = rentOut(2, "ACTIVE");
+
+        // One unit of the first rent-out came back in an earlier return
+        int restored = ReturnService.coverRentOuts(List.of(first, second), 1, 3, RETURN_DATE, BOOKING_ID);
+
+        assertThat(restored).isEqualTo(3);
+        assertThat(first.getStatus()).isEqualTo("RETURNED");
+        assertThat(second.getStatus()).isEqualTo("RETURNED");
+    }
+
+    @Test
+    void onlyUndatedRentalsAreRestoredToInventory() {
+        InventoryTransaction dated = rentOut(2, "RESERVED");
+        InventoryTransaction undated = rentOut(1, "ACTIVE");
+
+        int restored = ReturnService.coverRentOuts(List.of(dated, undated), 0, 3, RETURN_DATE, BOOKING_ID);
+
+        assertThat(restored).isEqualTo(1);
+        assertThat(dated.getStatus()).isEqualTo("RETURNED");
+        assertThat(undated.getStatus()).isEqualTo("RETURNED");
+    }
+
+    @Test
+    void ignoresRentOutsAlreadyMarkedReturned() {
+        InventoryTransaction returned = rentOut(2, "RETURNED");
+        InventoryTransaction open = rentOut(1, "ACTIVE");
+
+        int restored = ReturnService.coverRentOuts(List.of(returned, open), 2, 1, RETURN_DATE, BOOKING_ID);
+
+        assertThat(restored).isEqualTo(1);
+        assertThat(open.getStatus()).isEqualTo("RETURNED");
+    }
+
+    @Test
+    void rejectsReturningMoreThanIsOutstanding() {
+        InventoryTransaction rentOut = rentOut(2, "ACTIVE");
+
+        assertThatThrownBy(() -> ReturnService.coverRentOuts(List.of(rentOut), 1, 2, RETURN_DATE, BOOKING_ID))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Cannot return 2 unit(s) of variant ID 7 for booking ID 42. Outstanding: 1");
+    }
+
+    private static InventoryTransaction rentOut(int quantity, String status) {
+        ProductVariant variant = new ProductVariant();
+        variant.setVariantId(7);
+        InventoryTransaction transaction = new InventoryTransaction();
+        transaction.setVariant(variant);
+        transaction.setTransactionType("RENT_OUT");
+        transaction.setQuantity(quantity);
+        transaction.setStatus(status);
+        return transaction;
+    }
+}
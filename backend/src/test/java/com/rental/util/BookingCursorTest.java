@@ -0,0 +1,47 @@
+package com.rental.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BookingCursorTest {
+
+    @Test
+    void roundTripsTheLastRow() {
+        LocalDateTime bookingDate = LocalDateTime.of(2024, 5, 17, 14, 3, 27, 123_456_000);
+
+        String encoded = new BookingCursor(bookingDate, 1234).encode();
+        BookingCursor decoded = BookingCursor.decode(encoded);
+
+        assertThat(decoded.getBookingDate()).isEqualTo(bookingDate);
+        assertThat(decoded.getBookingId()).isEqualTo(1234);
+    }
+
+    @Test
+    void encodesAsUrlSafeText() {
+        String encoded = new BookingCursor(LocalDateTime.of(2024, 5, 17, 14, 3), 99).encode();
+
+        assertThat(encoded).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        assertThatThrownBy(() -> BookingCursor.decode("not base64!"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> BookingCursor.decode(encode("2024-05-17T14:03")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> BookingCursor.decode(encode("yesterday|12")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> BookingCursor.decode(encode("2024-05-17T14:03|abc")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
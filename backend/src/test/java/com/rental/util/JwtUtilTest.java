@@ -0,0 +1,114 @@
+package com.rental.util;
+
+import com.rental.config.JwtProperties;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtUtilTest {
+
+    private static final String LEGACY_SECRET = "legacy-secret-key-with-at-least-256-bits-of-entropy";
+    private static final String KEY_1 = "rotation-key-one-with-at-least-256-bits-of-entropy";
+    private static final String KEY_2 = "rotation-key-two-with-at-least-256-bits-of-entropy";
+
+    @Test
+    void legacySecretSignsTokensWithoutKeyId() {
+        JwtUtil jwtUtil = new JwtUtil(properties(LEGACY_SECRET, null, Map.of(), true));
+
+        String token = jwtUtil.generateToken("user@example.com", 7, "ADMIN");
+        VerifiedToken verified = jwtUtil.verifyToken(token);
+
+        assertThat(header(token)).doesNotContain("\"kid\"");
+        assertThat(verified.getEmail()).isEqualTo("user@example.com");
+        assertThat(verified.getUserId()).isEqualTo(7);
+        assertThat(verified.getRoleName()).isEqualTo("ADMIN");
+    }
+
+    @Test
+    void activeKeySignsWithItsKeyId() {
+        JwtUtil jwtUtil = new JwtUtil(properties(LEGACY_SECRET, "k1", Map.of("k1", KEY_1), true));
+
+        String token = jwtUtil.generateToken("user@example.com", 7, "ADMIN");
+
+        assertThat(header(token)).contains("\"kid\":\"k1\"");
+        assertThat(jwtUtil.verifyToken(token)).isNotNull();
+    }
+
+    @Test
+    void tokensSignedWithARetiredKeyStayValidAfterRotation() {
+        JwtUtil beforeRotation = new JwtUtil(properties(LEGACY_SECRET, "k1", Map.of("k1", KEY_1), true));
+        JwtUtil afterRotation = new JwtUtil(properties(LEGACY_SECRET, "k2", Map.of("k1", KEY_1, "k2", KEY_2), true));
+
+        String oldToken = beforeRotation.generateToken("user@example.com", 7, "ADMIN");
+        String newToken = afterRotation.generateToken("user@example.com", 7, "ADMIN");
+        String legacyToken = new JwtUtil(properties(LEGACY_SECRET, null, Map.of(), true))
+                .generateToken("user@example.com", 7, "ADMIN");
+
+        assertThat(header(newToken)).contains("\"kid\":\"k2\"");
+        assertThat(afterRotation.verifyToken(oldToken)).isNotNull();
+        assertThat(afterRotation.verifyToken(legacyToken)).isNotNull();
+        // A key that has been removed from the configuration no longer verifies anything
+        assertThat(beforeRotation.verifyToken(newToken)).isNull();
+    }
+
+    @Test
+    void rejectsLegacyTokensOnceTheyAreNoLongerAccepted() {
+        String legacyToken = new JwtUtil(properties(LEGACY_SECRET, null, Map.of(), true))
+                .generateToken("user@example.com", 7, "ADMIN");
+        JwtUtil jwtUtil = new JwtUtil(properties(LEGACY_SECRET, "k1", Map.of("k1", KEY_1), false));
+
+        assertThat(jwtUtil.verifyToken(legacyToken)).isNull();
+        assertThat(jwtUtil.validateToken(legacyToken)).isFalse();
+    }
+
+    @Test
+    void rejectsTamperedTokens() {
+        JwtUtil jwtUtil = new JwtUtil(properties(LEGACY_SECRET, "k1", Map.of("k1", KEY_1), true));
+        String token = jwtUtil.generateToken("user@example.com", 7, "ADMIN");
+        String[] parts = token.split("\\.");
+        String forgedPayload = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                "{\"sub\":\"admin@example.com\",\"roleName\":\"ADMIN\"}".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(jwtUtil.verifyToken(parts[0] + "." + forgedPayload + "." + parts[2])).isNull();
+        assertThat(jwtUtil.verifyToken("not-a-token")).isNull();
+    }
+
+    @Test
+    void rejectsExpiredTokens() {
+        JwtProperties expired = properties(LEGACY_SECRET, null, Map.of(), true);
+        expired.setExpiration(-1000L);
+        JwtUtil jwtUtil = new JwtUtil(expired);
+
+        assertThat(jwtUtil.verifyToken(jwtUtil.generateToken("user@example.com", 7, "ADMIN"))).isNull();
+    }
+
+    @Test
+    void rejectsInconsistentKeySettings() {
+        assertThatThrownBy(() -> new JwtUtil(properties(LEGACY_SECRET, "missing", Map.of("k1", KEY_1), true)))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> new JwtUtil(properties(LEGACY_SECRET, null, Map.of("k1", KEY_1), false)))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> new JwtUtil(properties(null, null, Map.of(), true)))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private static JwtProperties properties(String secret, String activeKeyId, Map<String, String> keys,
+                                            boolean acceptLegacyTokens) {
+        JwtProperties properties = new JwtProperties();
+        properties.setSecret(secret);
+        properties.setExpiration(60_000L);
+        properties.setActiveKeyId(activeKeyId);
+        properties.setKeys(keys);
+        properties.setAcceptLegacyTokens(acceptLegacyTokens);
+        return properties;
+    }
+
+    private static String header(String token) {
+        return new String(Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.'))), StandardCharsets.UTF_8);
+    }
+}
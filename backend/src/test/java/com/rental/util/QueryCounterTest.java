@@ -0,0 +1,82 @@
+package com.rental.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class QueryCounterTest {
+
+    @Test
+    void countsOnlyInsideAScope() {
+        QueryCounter.record("select 1");
+
+        try (QueryCounter.Scope queries = QueryCounter.start()) {
+            QueryCounter.record("select 1");
+            QueryCounter.record("select 2");
+
+            assertThat(queries.getCount()).isEqualTo(2);
+            queries.assertCount(2);
+            queries.assertAtMost(3);
+        }
+
+        QueryCounter.record("select 3");
+    }
+
+    @Test
+    void nestedScopesCountTowardsEveryOpenScope() {
+        try (QueryCounter.Scope outer = QueryCounter.start()) {
+            QueryCounter.record("select 1");
+            try (QueryCounter.Scope inner = QueryCounter.start()) {
+                QueryCounter.record("select 2");
+                assertThat(inner.getCount()).isEqualTo(1);
+            }
+            QueryCounter.record("select 3");
+
+            assertThat(outer.getCount()).isEqualTo(3);
+        }
+    }
+
+    @Test
+    void groupsRepeatedStatements() {
+        try (QueryCounter.Scope queries = QueryCounter.start()) {
+            for (int i = 0; i < 5; i++) {
+                QueryCounter.record("select * from booking_item where booking_id = ?");
+            }
+            QueryCounter.record("select * from booking");
+
+            assertThat(queries.getStatements())
+                    .extracting(QueryCounter.StatementCount::count)
+                    .containsExactly(5, 1);
+            assertThat(queries.getRepeatedStatements(3))
+                    .singleElement()
+                    .extracting(QueryCounter.StatementCount::sql)
+                    .isEqualTo("select * from booking_item where booking_id = ?");
+        }
+    }
+
+    @Test
+    void failedAssertionListsTheStatements() {
+        try (QueryCounter.Scope queries = QueryCounter.start()) {
+            QueryCounter.record("select *\n  from booking");
+
+            assertThatThrownBy(() -> queries.assertCount(0))
+                    .isInstanceOf(AssertionError.class)
+                    .hasMessageContaining("Expected 0 SQL statement(s) but 1 were executed")
+                    .hasMessageContaining("select * from booking");
+            assertThatThrownBy(() -> queries.assertAtMost(0))
+                    .isInstanceOf(AssertionError.class);
+        }
+    }
+
+    @Test
+    void describeTruncatesToTheLimit() {
+        try (QueryCounter.Scope queries = QueryCounter.start()) {
+            QueryCounter.record("select 1");
+            QueryCounter.record("select 2");
+            QueryCounter.record("select 3");
+
+            assertThat(queries.describe(1)).contains("... 2 more distinct statement(s)");
+        }
+    }
+}
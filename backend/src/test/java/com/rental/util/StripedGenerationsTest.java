@@ -0,0 +1,73 @@
+package com.rental.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StripedGenerationsTest {
+
+    @Test
+    void storesWhenNothingWasInvalidatedDuringTheLoad() {
+        StripedGenerations generations = new StripedGenerations(16);
+        AtomicInteger stored = new AtomicInteger();
+
+        long generation = generations.current(42);
+
+        assertThat(generations.runIfCurrent(42, generation, stored::incrementAndGet)).isTrue();
+        assertThat(stored).hasValue(1);
+    }
+
+    @Test
+    void skipsTheStoreAfterAnInvalidationOfTheSameKey() {
+        StripedGenerations generations = new StripedGenerations(16);
+        AtomicInteger stored = new AtomicInteger();
+        AtomicInteger dropped = new AtomicInteger();
+
+        long generation = generations.current(42);
+        generations.invalidate(42, dropped::incrementAndGet);
+
+        assertThat(dropped).hasValue(1);
+        assertThat(generations.runIfCurrent(42, generation, stored::incrementAndGet)).isFalse();
+        assertThat(stored).hasValue(0);
+    }
+
+    @Test
+    void invalidationOnlyTouchesTheKeysOfOneStripe() {
+        StripedGenerations generations = new StripedGenerations(256);
+
+        generations.invalidate(7, () -> { });
+
+        int affected = 0;
+        for (int key = 0; key < 1024; key++) {
+            if (generations.current(key) != 0) {
+                affected++;
+            }
+        }
+        // 1024 sequential IDs over 256 stripes: about four per stripe
+        assertThat(affected).isBetween(1, 8);
+    }
+
+    @Test
+    void roundsTheStripeCountUpToAPowerOfTwo() {
+        StripedGenerations generations = new StripedGenerations(3);
+
+        generations.invalidate(1, () -> { });
+
+        int affected = 0;
+        for (int key = 0; key < 400; key++) {
+            if (generations.current(key) != 0) {
+                affected++;
+            }
+        }
+        assertThat(affected).isBetween(50, 150);
+    }
+
+    @Test
+    void rejectsAnEmptyStripeCount() {
+        assertThatThrownBy(() -> new StripedGenerations(0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
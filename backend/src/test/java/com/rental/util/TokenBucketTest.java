@@ -0,0 +1,96 @@
+package com.rental.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void allowsBurstUpToCapacityThenReportsWait() {
+        TokenBucket bucket = new TokenBucket(3, Duration.ofSeconds(2), 0);
+
+        assertThat(bucket.tryConsume(0)).isZero();
+        assertThat(bucket.tryConsume(0)).isZero();
+        assertThat(bucket.tryConsume(0)).isZero();
+        assertThat(bucket.tryConsume(0)).isEqualTo(2 * SECOND);
+        assertThat(bucket.tryConsume(SECOND)).isEqualTo(SECOND);
+    }
+
+    @Test
+    void refillsOneTokenPerPeriod() {
+        TokenBucket bucket = new TokenBucket(1, Duration.ofSeconds(2), 0);
+
+        assertThat(bucket.tryConsume(0)).isZero();
+        assertThat(bucket.tryConsume(2 * SECOND)).isZero();
+        assertThat(bucket.tryConsume(2 * SECOND)).isEqualTo(2 * SECOND);
+    }
+
+    @Test
+    void neverHoldsMoreThanCapacity() {
+        TokenBucket bucket = new TokenBucket(2, Duration.ofSeconds(1), 0);
+
+        long later = 100 * SECOND;
+        assertThat(bucket.tryConsume(later)).isZero();
+        assertThat(bucket.tryConsume(later)).isZero();
+        assertThat(bucket.tryConsume(later)).isEqualTo(SECOND);
+    }
+
+    @Test
+    void ignoresTimestampsOlderThanTheLastUpdate() {
+        TokenBucket bucket = new TokenBucket(1, Duration.ofSeconds(1), 0);
+
+        assertThat(bucket.tryConsume(5 * SECOND)).isZero();
+        // A thread that read the clock earlier must not be granted a refill from the past
+        assertThat(bucket.tryConsume(4 * SECOND)).isEqualTo(SECOND);
+    }
+
+    @Test
+    void rejectsInvalidSettings() {
+        assertThatThrownBy(() -> new TokenBucket(0, Duration.ofSeconds(1), 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TokenBucket(1, Duration.ZERO, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TokenBucket(1, Duration.ofSeconds(-1), 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void grantsExactlyCapacityUnderContention() throws InterruptedException {
+        int capacity = 1000;
+        TokenBucket bucket = new TokenBucket(capacity, Duration.ofDays(1), 0);
+        AtomicInteger granted = new AtomicInteger();
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int t = 0; t < threads; t++) {
+                executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < capacity; i++) {
+                        if (bucket.tryConsume(0) == 0) {
+                            granted.incrementAndGet();
+                        }
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+        } finally {
+            executor.shutdown();
+            assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+        }
+
+        assertThat(granted.get()).isEqualTo(capacity);
+    }
+}
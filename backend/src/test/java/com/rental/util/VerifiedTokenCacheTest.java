@@ -0,0 +1,74 @@
+package com.rental.util;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class VerifiedTokenCacheTest {
+
+    private final JwtUtil jwtUtil = mock(JwtUtil.class);
+    private VerifiedTokenCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new VerifiedTokenCache(new SimpleMeterRegistry(), 100);
+        ReflectionTestUtils.setField(cache, "jwtUtil", jwtUtil);
+    }
+
+    @Test
+    void verifiesEachTokenOnce() {
+        VerifiedToken verified = token(Instant.now().plus(1, ChronoUnit.HOURS));
+        when(jwtUtil.verifyToken("a")).thenReturn(verified);
+
+        assertThat(cache.verify("a")).isSameAs(verified);
+        assertThat(cache.verify("a")).isSameAs(verified);
+
+        verify(jwtUtil, times(1)).verifyToken("a");
+    }
+
+    @Test
+    void doesNotCacheInvalidTokens() {
+        when(jwtUtil.verifyToken("bad")).thenReturn(null);
+
+        assertThat(cache.verify("bad")).isNull();
+        assertThat(cache.verify("bad")).isNull();
+
+        verify(jwtUtil, times(2)).verifyToken("bad");
+    }
+
+    @Test
+    void keepsTokensApart() {
+        VerifiedToken first = token(Instant.now().plus(1, ChronoUnit.HOURS));
+        VerifiedToken second = token(Instant.now().plus(1, ChronoUnit.HOURS));
+        when(jwtUtil.verifyToken("a")).thenReturn(first);
+        when(jwtUtil.verifyToken("b")).thenReturn(second);
+
+        assertThat(cache.verify("a")).isSameAs(first);
+        assertThat(cache.verify("b")).isSameAs(second);
+    }
+
+    @Test
+    void rejectsCachedTokensOnceExpired() throws InterruptedException {
+        // JwtUtil itself rejects the token once it has expired
+        when(jwtUtil.verifyToken("short")).thenReturn(token(Instant.now().plusMillis(50)), (VerifiedToken) null);
+
+        assertThat(cache.verify("short")).isNotNull();
+        Thread.sleep(100);
+
+        assertThat(cache.verify("short")).isNull();
+    }
+
+    private static VerifiedToken token(Instant expiresAt) {
+        return new VerifiedToken("user@example.com", 1, "ADMIN", expiresAt);
+    }
+}
@@ -0,0 +1,4 @@
+-- Supports AvailabilityService: dated RENT items of one variant that end on or after a given day
+CREATE INDEX IF NOT EXISTS idx_booking_item_variant_rental_end
+    ON rental_management.booking_item (variant_id, rental_end)
+    WHERE rental_start IS NOT NULL;
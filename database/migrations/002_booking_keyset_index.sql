@@ -0,0 +1,7 @@
+-- Keyset pagination for GET /bookings (ORDER BY booking_date DESC, booking_id DESC)
+CREATE INDEX IF NOT EXISTS idx_booking_date_id
+    ON rental_management.booking (booking_date DESC, booking_id DESC);
+
+-- Common list filters
+CREATE INDEX IF NOT EXISTS idx_booking_customer_date
+    ON rental_management.booking (customer_id, booking_date DESC);
@@ -0,0 +1,34 @@
+-- Pooled ID generation for booking_item, inventory_transaction, damage_record and audit_log.
+-- Hibernate reserves 50 IDs per nextval() (pooled-lo: [value, value + 49]), so the column
+-- sequences must advance by 50. Plain INSERTs that use the column default keep working;
+-- they simply take the first ID of a fresh block. Serial columns already accept explicit
+-- IDs; identity columns are switched to GENERATED BY DEFAULT, since GENERATED ALWAYS
+-- would reject the IDs Hibernate supplies.
+DO $$
+DECLARE
+    target RECORD;
+    seq_name TEXT;
+    is_identity BOOLEAN;
+BEGIN
+    FOR target IN
+        SELECT * FROM (VALUES
+            ('booking_item', 'booking_item_id'),
+            ('inventory_transaction', 'transaction_id'),
+            ('damage_record', 'damage_id'),
+            ('audit_log', 'audit_id')
+        ) AS t(table_name, column_name)
+    LOOP
+        SELECT a.attidentity <> '' INTO is_identity
+        FROM pg_attribute a
+        WHERE a.attrelid = ('rental_management.' || target.table_name)::regclass
+          AND a.attname = target.column_name;
+
+        IF is_identity THEN
+            EXECUTE format('ALTER TABLE rental_management.%I ALTER COLUMN %I SET GENERATED BY DEFAULT SET INCREMENT BY 50',
+                           target.table_name, target.column_name);
+        ELSE
+            seq_name := pg_get_serial_sequence('rental_management.' || target.table_name, target.column_name);
+            EXECUTE format('ALTER SEQUENCE %s INCREMENT BY 50', seq_name);
+        END IF;
+    END LOOP;
+END $$;
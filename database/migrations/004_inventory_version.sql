@@ -0,0 +1,3 @@
+-- Optimistic locking for inventory rows (Inventory.version, bumped by every write)
+ALTER TABLE rental_management.inventory
+    ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,24 @@
+-- Short-term reservation holds (ReservationHoldService)
+CREATE TABLE IF NOT EXISTS rental_management.reservation_hold (
+    hold_id        SERIAL PRIMARY KEY,
+    variant_id     INTEGER      NOT NULL REFERENCES rental_management.product_variant (variant_id),
+    quantity       INTEGER      NOT NULL CHECK (quantity > 0),
+    rental_start   DATE,
+    rental_end     DATE,
+    status         VARCHAR(20)  NOT NULL DEFAULT 'ACTIVE',
+    expires_at     TIMESTAMP    NOT NULL,
+    booking_id     INTEGER      REFERENCES rental_management.booking (booking_id),
+    created_by     VARCHAR(100),
+    created_at     TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at     TIMESTAMP
+);
+
+-- Availability calendar: active dated holds of one variant
+CREATE INDEX IF NOT EXISTS idx_reservation_hold_variant_active
+    ON rental_management.reservation_hold (variant_id, rental_end)
+    WHERE status = 'ACTIVE';
+
+-- Expiry recovery at startup
+CREATE INDEX IF NOT EXISTS idx_reservation_hold_active_expiry
+    ON rental_management.reservation_hold (expires_at)
+    WHERE status = 'ACTIVE';
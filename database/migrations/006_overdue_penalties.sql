@@ -0,0 +1,32 @@
+-- Overdue rental scanner (OverdueRentalScanner)
+
+-- Progress of incremental background jobs; the row is locked while the job runs
+CREATE TABLE IF NOT EXISTS rental_management.job_watermark (
+    job_name       VARCHAR(50) PRIMARY KEY,
+    watermark_date DATE,
+    updated_at     TIMESTAMP
+);
+
+-- Open rentals by due date: the scanner never reads returned transactions
+CREATE INDEX IF NOT EXISTS idx_inventory_transaction_open_rentals
+    ON rental_management.inventory_transaction (expected_return_date, transaction_id)
+    WHERE transaction_type = 'RENT_OUT' AND actual_return_date IS NULL;
+
+-- Penalties are inserted in batches with pooled IDs (allocationSize 50), see 003
+DO $$
+DECLARE
+    is_identity BOOLEAN;
+BEGIN
+    SELECT a.attidentity <> '' INTO is_identity
+    FROM pg_attribute a
+    WHERE a.attrelid = 'rental_management.penalty'::regclass
+      AND a.attname = 'penalty_id';
+
+    IF is_identity THEN
+        -- GENERATED ALWAYS would reject the IDs Hibernate supplies
+        ALTER TABLE rental_management.penalty ALTER COLUMN penalty_id SET GENERATED BY DEFAULT SET INCREMENT BY 50;
+    ELSE
+        EXECUTE format('ALTER SEQUENCE %s INCREMENT BY 50',
+                       pg_get_serial_sequence('rental_management.penalty', 'penalty_id'));
+    END IF;
+END $$;
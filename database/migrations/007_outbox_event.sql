@@ -0,0 +1,27 @@
+-- Transactional outbox (OutboxService / OutboxRelay)
+-- event_id uses pooled IDs (allocationSize 50), so the sequence advances by 50
+CREATE SEQUENCE IF NOT EXISTS rental_management.outbox_event_event_id_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS rental_management.outbox_event (
+    event_id       BIGINT       PRIMARY KEY DEFAULT nextval('rental_management.outbox_event_event_id_seq'),
+    aggregate_type VARCHAR(30)  NOT NULL,
+    aggregate_id   INTEGER      NOT NULL,
+    event_type     VARCHAR(50)  NOT NULL,
+    payload        JSONB        NOT NULL,
+    attempts       INTEGER      NOT NULL DEFAULT 0,
+    last_error     TEXT,
+    created_at     TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    published_at   TIMESTAMP
+);
+
+ALTER SEQUENCE rental_management.outbox_event_event_id_seq OWNED BY rental_management.outbox_event.event_id;
+
+-- Relay polling: only undelivered events are indexed, so the index stays small
+CREATE INDEX IF NOT EXISTS idx_outbox_event_unpublished
+    ON rental_management.outbox_event (event_id)
+    WHERE published_at IS NULL;
+
+-- Cleanup of delivered events
+CREATE INDEX IF NOT EXISTS idx_outbox_event_published_at
+    ON rental_management.outbox_event (published_at)
+    WHERE published_at IS NOT NULL;
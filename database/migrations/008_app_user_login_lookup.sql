@@ -0,0 +1,4 @@
+-- Login by mobile number (AuthService.login looks up email and mobile with separate queries;
+-- email is already covered by its unique constraint)
+CREATE INDEX IF NOT EXISTS idx_app_user_contact_number
+    ON rental_management.app_user (contact_number);
@@ -0,0 +1,9 @@
+-- The audit listener now redacts app_user.password before queueing (audit.redacted-properties).
+-- Scrub the password hashes copied into audit_log before that change.
+UPDATE rental_management.audit_log
+SET old_data = CASE WHEN old_data ? 'password' AND old_data->>'password' IS NOT NULL
+                    THEN jsonb_set(old_data, '{password}', '"[REDACTED]"') ELSE old_data END,
+    new_data = CASE WHEN new_data ? 'password' AND new_data->>'password' IS NOT NULL
+                    THEN jsonb_set(new_data, '{password}', '"[REDACTED]"') ELSE new_data END
+WHERE table_name = 'app_user'
+  AND (old_data ? 'password' OR new_data ? 'password');
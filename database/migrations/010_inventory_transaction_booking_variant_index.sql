@@ -0,0 +1,4 @@
+-- Returned units per booking and variant (OverdueRentalScanner charges only units still out,
+-- ReturnService reads a booking's transactions)
+CREATE INDEX IF NOT EXISTS idx_inventory_transaction_booking_variant
+    ON rental_management.inventory_transaction (booking_id, variant_id, transaction_type);
@@ -0,0 +1,10 @@
+-- Outbox relay retries (OutboxRelay): failed events wait out an exponential backoff measured
+-- from their last attempt, and are dead-lettered (left undelivered) after outbox.relay.max-attempts
+ALTER TABLE rental_management.outbox_event
+    ADD COLUMN IF NOT EXISTS last_attempt_at TIMESTAMP;
+
+-- Undelivered events that already failed, by aggregate: later events of the same aggregate
+-- wait for them so each aggregate's events are delivered in order
+CREATE INDEX IF NOT EXISTS idx_outbox_event_failed_aggregate
+    ON rental_management.outbox_event (aggregate_type, aggregate_id, event_id)
+    WHERE published_at IS NULL AND attempts > 0;